@@ -0,0 +1,113 @@
+package example.benchmark;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.WithdrawResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountManagerBenchmark {
+
+    @State(Scope.Thread)
+    public static class Accounts {
+        AccountManager accountManager = new AccountManagerImpl();
+        Customer depositor = new Customer();
+        Customer normal = new Customer();
+        Customer credit = new Customer();
+        Customer creditLine = new Customer();
+        Customer vip = new Customer();
+        Customer insufficient = new Customer();
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            normal.setBalance(Integer.MAX_VALUE);
+
+            depositor.setBalance(0);
+
+            credit.setBalance(0);
+            credit.setCreditAllowed(true);
+
+            creditLine.setBalance(0);
+            creditLine.setCreditAllowed(true);
+            creditLine.setMaxCredit(Long.MAX_VALUE / 2);
+
+            vip.setBalance(0);
+            vip.setCreditAllowed(true);
+            vip.setVip(true);
+
+            insufficient.setBalance(0);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedAccount {
+        AccountManager accountManager = new AccountManagerImpl();
+        Customer customer = new Customer();
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            customer.setBalance(0);
+        }
+    }
+
+    @Benchmark
+    public void deposit(Accounts accounts) {
+        accounts.accountManager.deposit(accounts.depositor, 1);
+    }
+
+    @Benchmark
+    public WithdrawResult withdrawFromBalance(Accounts accounts) {
+        return accounts.accountManager.withdraw(accounts.normal, 1);
+    }
+
+    @Benchmark
+    public WithdrawResult withdrawInsufficientBalance(Accounts accounts) {
+        return accounts.accountManager.withdraw(accounts.insufficient, 1);
+    }
+
+    @Benchmark
+    public WithdrawResult withdrawOnCredit(Accounts accounts) {
+        return accounts.accountManager.withdraw(accounts.creditLine, 1);
+    }
+
+    @Benchmark
+    public WithdrawResult withdrawMaximumCreditExceeded(Accounts accounts) {
+        return accounts.accountManager.withdraw(accounts.credit, 2000);
+    }
+
+    @Benchmark
+    public WithdrawResult withdrawVipBeyondMaxCredit(Accounts accounts) {
+        return accounts.accountManager.withdraw(accounts.vip, 1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void depositContended(SharedAccount account) {
+        account.accountManager.deposit(account.customer, 1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public WithdrawResult depositWithdrawContended(SharedAccount account) {
+        account.accountManager.deposit(account.customer, 1);
+        return account.accountManager.withdraw(account.customer, 1);
+    }
+}
@@ -0,0 +1,109 @@
+package example.benchmark;
+
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.store.Product;
+import example.store.PurchaseResult;
+import example.store.Store;
+import example.store.StoreImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+    @State(Scope.Thread)
+    public static class LocalShop {
+        Store store = new StoreImpl(new AccountManagerImpl());
+        Customer customer = new Customer();
+        Customer broke = new Customer();
+        Product product = new Product("Phones", 1, 0);
+        Product soldOut = new Product("TVs", 1, 0);
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            customer.setBalance(Integer.MAX_VALUE);
+            broke.setBalance(0);
+            product.setQuantity(Integer.MAX_VALUE);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedShop {
+        Store store = new StoreImpl(new AccountManagerImpl());
+        Product product = new Product("Phones", 1, 0);
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            product.setQuantity(Integer.MAX_VALUE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buyer {
+        Customer customer = new Customer();
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            customer.setBalance(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public PurchaseResult tryBuy(LocalShop shop) {
+        return shop.store.tryBuy(shop.product, shop.customer);
+    }
+
+    @Benchmark
+    public PurchaseResult tryBuyOutOfStock(LocalShop shop) {
+        return shop.store.tryBuy(shop.soldOut, shop.customer);
+    }
+
+    @Benchmark
+    public PurchaseResult tryBuyDeclined(LocalShop shop) {
+        return shop.store.tryBuy(shop.product, shop.broke);
+    }
+
+    @Benchmark
+    public void buy(LocalShop shop) {
+        shop.store.buy(shop.product, shop.customer);
+    }
+
+    @Benchmark
+    public RuntimeException buyDeclined(LocalShop shop) {
+        try {
+            shop.store.buy(shop.product, shop.broke);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public PurchaseResult tryBuyContended(SharedShop shop, Buyer buyer) {
+        return shop.store.tryBuy(shop.product, buyer.customer);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void buyContended(SharedShop shop, Buyer buyer) {
+        shop.store.buy(shop.product, buyer.customer);
+    }
+}
@@ -2,8 +2,20 @@ package example.account;
 
 public interface AccountManager {
 
-    void deposit(Customer customer, int amount);
+    void deposit(Customer customer, long amount);
 
-    String withdraw(Customer customer, int amount);
+    WithdrawResult withdraw(Customer customer, long amount);
+
+    void deposit(long customerId, long amount);
+
+    WithdrawResult withdraw(long customerId, long amount);
+
+    /**
+     * Moves {@code amount} from one customer to another under the same credit rules as
+     * {@link #withdraw(Customer, long)}: either both balances change or neither does.
+     */
+    WithdrawResult transfer(Customer from, Customer to, long amount);
+
+    WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount);
 
 }
@@ -1,29 +1,174 @@
 package example.account;
 
+import example.money.Money;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 public class AccountManagerImpl implements AccountManager {
-    private static final int MAX_CREDIT = 1000;
+    private static final int TRANSFER_STRIPES = 256;
+
+    private final CustomerLedger ledger;
+    private final LongAdder contendedUpdates = new LongAdder();
+    private final Lock[] transferLocks = new Lock[TRANSFER_STRIPES];
+    private volatile CreditPolicy creditPolicy = CreditPolicy.defaultPolicy();
+
+    public AccountManagerImpl() {
+        this(new CustomerLedger());
+    }
+
+    public AccountManagerImpl(CustomerLedger ledger) {
+        this.ledger = ledger;
+        for (int i = 0; i < TRANSFER_STRIPES; i++) {
+            transferLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public CustomerLedger getLedger() {
+        return ledger;
+    }
+
+    public CreditPolicy getCreditPolicy() {
+        return creditPolicy;
+    }
+
+    /**
+     * Replaces the credit rules for all subsequent withdrawals; a withdrawal already in progress
+     * finishes under the policy it started with.
+     */
+    public void setCreditPolicy(CreditPolicy creditPolicy) {
+        this.creditPolicy = creditPolicy;
+    }
+
+    /**
+     * Number of balance updates that lost a compare-and-set race and had to retry.
+     */
+    public long getContendedUpdates() {
+        return contendedUpdates.sum();
+    }
+
     @Override
-    public void deposit(Customer customer, int amount) {
+    public void deposit(Customer customer, long amount) {
         if(amount <= 0){
             return;
         }
-        customer.setBalance(customer.getBalance() + amount);
+        long balance = customer.getBalance();
+        while (!customer.compareAndSetBalance(balance, Money.add(balance, amount))) {
+            contendedUpdates.increment();
+            balance = customer.getBalance();
+        }
     }
 
     @Override
-    public String withdraw(Customer customer, int amount) {
-        int expectedBalance = customer.getBalance() - amount;
+    public WithdrawResult withdraw(Customer customer, long amount) {
          if(amount <= 0){
-             return "success";
+             return WithdrawResult.SUCCESS;
          }
-        if (expectedBalance < 0) {
-            if (!customer.isCreditAllowed()) {
-                return "insufficient account balance";
-            } else if (expectedBalance < -MAX_CREDIT && !customer.isVip()) {
-                return "maximum credit exceeded";
+        CreditPolicy policy = creditPolicy;
+        while (true) {
+            AccountState state = customer.readState();
+            long balance = state.getBalance();
+            WithdrawResult rejection = policy.check(balance, amount,
+                    state.isCreditAllowed(), state.isVip(), state.getMaxCredit());
+            if (rejection != null) {
+                return rejection;
+            }
+            if (customer.compareAndSetBalance(balance, balance - amount)) {
+                return WithdrawResult.SUCCESS;
+            }
+            contendedUpdates.increment();
+        }
+    }
+
+    /**
+     * Holds the transfer locks of both customers, always taken in stripe order so that cyclic
+     * transfers cannot deadlock, while debiting {@code from} and crediting {@code to}; anyone holding
+     * those locks, such as {@link #totalBalance(Collection)}, sees both updates or neither. If
+     * crediting {@code to} would overflow, the debit is reversed before the exception propagates.
+     * <p>
+     * Plain deposits and withdrawals stay lock-free and may interleave with a transfer on the same
+     * customer; each of them is still applied atomically.
+     */
+    @Override
+    public WithdrawResult transfer(Customer from, Customer to, long amount) {
+        if (from == to) {
+            throw new IllegalArgumentException("Cannot transfer to the same customer");
+        }
+        int fromStripe = stripeIndex(from.getId());
+        int toStripe = stripeIndex(to.getId());
+        Lock first = transferLocks[Math.min(fromStripe, toStripe)];
+        Lock second = transferLocks[Math.max(fromStripe, toStripe)];
+        first.lock();
+        second.lock();
+        try {
+            WithdrawResult result = withdraw(from, amount);
+            if (!result.isSuccess() || amount <= 0) {
+                return result;
+            }
+            try {
+                deposit(to, amount);
+            } catch (ArithmeticException e) {
+                deposit(from, amount);
+                throw e;
+            }
+            return WithdrawResult.SUCCESS;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    /**
+     * Sums the balances of {@code customers} while holding every transfer lock, so no transfer of
+     * this manager is half-applied in the result. Deposits and withdrawals are not held back.
+     */
+    public long totalBalance(Collection<Customer> customers) {
+        for (Lock lock : transferLocks) {
+            lock.lock();
+        }
+        try {
+            long total = 0;
+            for (Customer customer : customers) {
+                total = Money.add(total, customer.getBalance());
+            }
+            return total;
+        } finally {
+            for (int i = transferLocks.length - 1; i >= 0; i--) {
+                transferLocks[i].unlock();
             }
         }
-        customer.setBalance(expectedBalance);
-        return "success";
+    }
+
+    @Override
+    public void deposit(long customerId, long amount) {
+        deposit(lookup(customerId), amount);
+    }
+
+    @Override
+    public WithdrawResult withdraw(long customerId, long amount) {
+        return withdraw(lookup(customerId), amount);
+    }
+
+    @Override
+    public WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount) {
+        return transfer(lookup(fromCustomerId), lookup(toCustomerId), amount);
+    }
+
+    public AccountState readState(long customerId) {
+        return lookup(customerId).readState();
+    }
+
+    private static int stripeIndex(long customerId) {
+        return (int) (customerId & (TRANSFER_STRIPES - 1));
+    }
+
+    private Customer lookup(long customerId) {
+        Customer customer = ledger.get(customerId);
+        if (customer == null) {
+            throw new IllegalArgumentException("Unknown customer: " + customerId);
+        }
+        return customer;
     }
 }
@@ -0,0 +1,41 @@
+package example.account;
+
+/**
+ * Balance and credit terms of one account as they were at a single point in time.
+ */
+public class AccountState {
+    private final long balance;
+    private final boolean creditAllowed;
+    private final boolean vip;
+    private final long maxCredit;
+
+    public AccountState(long balance, boolean creditAllowed, boolean vip) {
+        this(balance, creditAllowed, vip, Customer.TIER_MAX_CREDIT);
+    }
+
+    public AccountState(long balance, boolean creditAllowed, boolean vip, long maxCredit) {
+        this.balance = balance;
+        this.creditAllowed = creditAllowed;
+        this.vip = vip;
+        this.maxCredit = maxCredit;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public boolean isCreditAllowed() {
+        return creditAllowed;
+    }
+
+    public boolean isVip() {
+        return vip;
+    }
+
+    /**
+     * The customer's own credit limit, or {@link Customer#TIER_MAX_CREDIT} if the tier's applies.
+     */
+    public long getMaxCredit() {
+        return maxCredit;
+    }
+}
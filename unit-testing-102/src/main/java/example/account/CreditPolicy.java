@@ -0,0 +1,152 @@
+package example.account;
+
+import example.money.Money;
+
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a withdrawal may take a customer below zero, and how far.
+ * <p>
+ * The credit limit is the customer's own {@link Customer#getMaxCredit()} when set, otherwise the
+ * limit of its {@link CreditTier}; any time window active at the moment of the withdrawal can then
+ * only lower it. The rules are compiled by {@link Builder#build()} into flat arrays, so
+ * {@link #check} does a couple of array reads and, only when time windows exist, one clock read.
+ * <p>
+ * Policies are immutable; swap one in with
+ * {@link AccountManagerImpl#setCreditPolicy(CreditPolicy)}.
+ */
+public final class CreditPolicy {
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    private static final long DEFAULT_STANDARD_LIMIT = Money.of(10, 0);
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final CreditPolicy DEFAULT = builder().build();
+
+    private final long[] tierLimits;
+    private final int[] windowStarts;
+    private final int[] windowEnds;
+    private final long[] windowLimits;
+    private final int offsetMinutes;
+    private final LongSupplier clock;
+
+    private CreditPolicy(Builder builder) {
+        this.tierLimits = builder.tierLimits.clone();
+        int windows = builder.windows.size();
+        this.windowStarts = new int[windows];
+        this.windowEnds = new int[windows];
+        this.windowLimits = new long[windows];
+        for (int i = 0; i < windows; i++) {
+            long[] window = builder.windows.get(i);
+            windowStarts[i] = (int) window[0];
+            windowEnds[i] = (int) window[1];
+            windowLimits[i] = window[2];
+        }
+        this.offsetMinutes = builder.offset.getTotalSeconds() / 60;
+        this.clock = builder.clock;
+    }
+
+    /**
+     * Standard customers may go 10.00 ({@code 1000} minor units) below zero, VIP customers without
+     * limit.
+     */
+    public static CreditPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the rejection for withdrawing a positive {@code amount} from {@code balance}, or
+     * {@code null} when it is allowed. A withdrawal whose result would not fit in a {@code long} is
+     * always rejected.
+     *
+     * @param maxCredit the customer's own limit, or {@link Customer#TIER_MAX_CREDIT} for the tier's
+     */
+    public WithdrawResult check(long balance, long amount, boolean creditAllowed, boolean vip, long maxCredit) {
+        if (balance < Long.MIN_VALUE + amount) {
+            return creditAllowed ? WithdrawResult.MAXIMUM_CREDIT_EXCEEDED : WithdrawResult.INSUFFICIENT_ACCOUNT_BALANCE;
+        }
+        long expectedBalance = balance - amount;
+        if (expectedBalance >= 0) {
+            return null;
+        }
+        if (!creditAllowed) {
+            return WithdrawResult.INSUFFICIENT_ACCOUNT_BALANCE;
+        }
+        long limit = maxCredit >= 0 ? maxCredit : tierLimits[CreditTier.of(vip).ordinal()];
+        if (windowStarts.length > 0) {
+            limit = applyWindows(limit);
+        }
+        if (limit != UNLIMITED && expectedBalance < -limit) {
+            return WithdrawResult.MAXIMUM_CREDIT_EXCEEDED;
+        }
+        return null;
+    }
+
+    private long applyWindows(long limit) {
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(clock.getAsLong()) + offsetMinutes;
+        int minuteOfDay = (int) Math.floorMod(minutes, (long) MINUTES_PER_DAY);
+        for (int i = 0; i < windowStarts.length; i++) {
+            int start = windowStarts[i];
+            int end = windowEnds[i];
+            boolean active = start <= end
+                    ? minuteOfDay >= start && minuteOfDay < end
+                    : minuteOfDay >= start || minuteOfDay < end;
+            if (active && windowLimits[i] < limit) {
+                limit = windowLimits[i];
+            }
+        }
+        return limit;
+    }
+
+    public static final class Builder {
+        private final long[] tierLimits = {DEFAULT_STANDARD_LIMIT, UNLIMITED};
+        private final List<long[]> windows = new ArrayList<>();
+        private ZoneOffset offset = ZoneOffset.UTC;
+        private LongSupplier clock = System::currentTimeMillis;
+
+        private Builder() {
+        }
+
+        public Builder tierLimit(CreditTier tier, long limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Credit limit must not be negative");
+            }
+            tierLimits[tier.ordinal()] = limit;
+            return this;
+        }
+
+        /**
+         * Caps every customer's limit at {@code limit} between {@code from} (inclusive) and
+         * {@code to} (exclusive) each day; a window may wrap past midnight.
+         */
+        public Builder window(LocalTime from, LocalTime to, long limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Credit limit must not be negative");
+            }
+            windows.add(new long[]{from.getHour() * 60 + from.getMinute(), to.getHour() * 60 + to.getMinute(), limit});
+            return this;
+        }
+
+        public Builder zoneOffset(ZoneOffset offset) {
+            this.offset = offset;
+            return this;
+        }
+
+        Builder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public CreditPolicy build() {
+            return new CreditPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package example.account;
+
+public enum CreditTier {
+    STANDARD,
+    VIP;
+
+    public static CreditTier of(boolean vip) {
+        return vip ? VIP : STANDARD;
+    }
+}
@@ -1,13 +1,36 @@
 package example.account;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public class Customer {
 
+    /**
+     * {@link #getMaxCredit()} value meaning the credit limit comes from the customer's tier.
+     */
+    public static final long TIER_MAX_CREDIT = -1;
+
+    private static final AtomicLongFieldUpdater<Customer> BALANCE =
+            AtomicLongFieldUpdater.newUpdater(Customer.class, "balance");
+    private static final AtomicIntegerFieldUpdater<Customer> VERSION =
+            AtomicIntegerFieldUpdater.newUpdater(Customer.class, "version");
+
+    private long id;
     private String name;
-    private int balance;
-    private boolean creditAllowed;
-//    private int maxCredit = 0;
-    private boolean vip;
+    private volatile long balance;
+    private volatile boolean creditAllowed;
+    private volatile long maxCredit = TIER_MAX_CREDIT;
+    private volatile boolean vip;
+    // seqlock over the credit terms: odd while a write to them is in progress
+    private volatile int version;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
 
     public String getName() {
         return name;
@@ -17,20 +40,36 @@ public class Customer {
         this.name = name;
     }
 
-    public int getBalance() {
+    public long getBalance() {
         return balance;
     }
 
-    public void setBalance(int balance) {
+    public void setBalance(long balance) {
         this.balance = balance;
     }
 
+    boolean compareAndSetBalance(long expectedBalance, long newBalance) {
+        return BALANCE.compareAndSet(this, expectedBalance, newBalance);
+    }
+
     public boolean isCreditAllowed() {
         return creditAllowed;
     }
 
     public void setCreditAllowed(boolean creditAllowed) {
+        beginFlagWrite();
         this.creditAllowed = creditAllowed;
+        endFlagWrite();
+    }
+
+    public long getMaxCredit() {
+        return maxCredit;
+    }
+
+    public void setMaxCredit(long maxCredit) {
+        beginFlagWrite();
+        this.maxCredit = maxCredit;
+        endFlagWrite();
     }
 
     public boolean isVip() {
@@ -38,6 +77,64 @@ public class Customer {
     }
 
     public void setVip(boolean vip) {
+        beginFlagWrite();
+        this.vip = vip;
+        endFlagWrite();
+    }
+
+    /**
+     * Changes both credit flags as one step, so {@link #readState()} never sees only one of them
+     * changed.
+     */
+    public void setCreditTerms(boolean creditAllowed, boolean vip) {
+        beginFlagWrite();
+        this.creditAllowed = creditAllowed;
+        this.vip = vip;
+        endFlagWrite();
+    }
+
+    /**
+     * Changes both credit flags and the credit limit as one step.
+     */
+    public void setCreditTerms(boolean creditAllowed, boolean vip, long maxCredit) {
+        beginFlagWrite();
+        this.creditAllowed = creditAllowed;
         this.vip = vip;
+        this.maxCredit = maxCredit;
+        endFlagWrite();
+    }
+
+    /**
+     * Reads balance and credit terms as one consistent view without blocking writers.
+     * <p>
+     * Writes to the credit flags and limit go through a sequence lock and the read retries if one
+     * overlapped it. The balance is a single atomic field, so a balance update that overlaps the
+     * read only decides which of two valid balances is returned alongside the unchanged terms.
+     */
+    public AccountState readState() {
+        while (true) {
+            int before = version;
+            if ((before & 1) == 0) {
+                long currentBalance = balance;
+                boolean currentCreditAllowed = creditAllowed;
+                boolean currentVip = vip;
+                long currentMaxCredit = maxCredit;
+                if (version == before) {
+                    return new AccountState(currentBalance, currentCreditAllowed, currentVip, currentMaxCredit);
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    private void beginFlagWrite() {
+        int current;
+        do {
+            current = version;
+        } while ((current & 1) != 0 || !VERSION.compareAndSet(this, current, current + 1));
+    }
+
+    private void endFlagWrite() {
+        VERSION.incrementAndGet(this);
     }
 }
@@ -0,0 +1,229 @@
+package example.account;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Registry of customers keyed by their primitive {@code long} id.
+ * <p>
+ * Customers are spread over a power-of-two number of segments, each an open-addressing table of
+ * parallel {@code long[]}/{@code Customer[]} arrays guarded by its own {@link StampedLock}, so lookups
+ * neither box the key nor contend with writers on other segments.
+ */
+public class CustomerLedger {
+    private static final int DEFAULT_SEGMENTS = 64;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    public CustomerLedger() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    public CustomerLedger(int segmentCount) {
+        if (segmentCount <= 0) {
+            throw new IllegalArgumentException("Segment count must be positive");
+        }
+        int size = 1;
+        while (size < segmentCount) {
+            size <<= 1;
+        }
+        segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment();
+        }
+        segmentShift = 64 - Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * Registers the customer under {@link Customer#getId()}, replacing and returning any customer
+     * previously registered with the same id.
+     */
+    public Customer register(Customer customer) {
+        long hash = hash(customer.getId());
+        return segmentFor(hash).put(customer.getId(), hash, customer);
+    }
+
+    public Customer get(long id) {
+        long hash = hash(id);
+        return segmentFor(hash).get(id, hash);
+    }
+
+    public Customer remove(long id) {
+        long hash = hash(id);
+        return segmentFor(hash).remove(id, hash);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void forEach(Consumer<Customer> action) {
+        for (Segment segment : segments) {
+            segment.forEach(action);
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segmentShift == 64 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    private static long hash(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private long[] keys = new long[INITIAL_SEGMENT_CAPACITY];
+        private Customer[] values = new Customer[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+
+        Customer get(long id, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            Customer customer = find(keys, values, id, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    customer = find(keys, values, id, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return customer;
+        }
+
+        Customer put(long id, long hash, Customer customer) {
+            long stamp = lock.writeLock();
+            try {
+                int mask = values.length - 1;
+                int slot = (int) hash & mask;
+                while (values[slot] != null) {
+                    if (keys[slot] == id) {
+                        Customer previous = values[slot];
+                        values[slot] = customer;
+                        return previous;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = id;
+                values[slot] = customer;
+                if (++size > values.length * 3 / 4) {
+                    resize();
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        Customer remove(long id, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                int mask = values.length - 1;
+                int slot = (int) hash & mask;
+                while (values[slot] != null) {
+                    if (keys[slot] == id) {
+                        Customer removed = values[slot];
+                        shiftBack(slot);
+                        size--;
+                        return removed;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void forEach(Consumer<Customer> action) {
+            Customer[] snapshot;
+            long stamp = lock.readLock();
+            try {
+                snapshot = values.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            for (Customer customer : snapshot) {
+                if (customer != null) {
+                    action.accept(customer);
+                }
+            }
+        }
+
+        private static Customer find(long[] keys, Customer[] values, long id, long hash) {
+            int mask = values.length - 1;
+            if (keys.length != values.length) {
+                return null;
+            }
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes < values.length; probes++) {
+                Customer customer = values[slot];
+                if (customer == null) {
+                    return null;
+                }
+                if (keys[slot] == id) {
+                    return customer;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private void shiftBack(int slot) {
+            int mask = values.length - 1;
+            int gap = slot;
+            int next = (gap + 1) & mask;
+            while (values[next] != null) {
+                int home = (int) hash(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            values[gap] = null;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Customer[] oldValues = values;
+            long[] newKeys = new long[oldValues.length * 2];
+            Customer[] newValues = new Customer[oldValues.length * 2];
+            int mask = newValues.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = (int) hash(oldKeys[i]) & mask;
+                    while (newValues[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = oldValues[i];
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+    }
+}
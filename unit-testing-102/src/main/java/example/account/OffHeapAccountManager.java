@@ -0,0 +1,269 @@
+package example.account;
+
+import example.money.Money;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link AccountManager} whose account state lives outside the Java heap, so tens of millions of
+ * accounts add nothing for the garbage collector to trace.
+ * <p>
+ * Each account is a fixed 16-byte record (balance, flags) in direct {@link ByteBuffer} chunks,
+ * addressed by customer id ({@code 0 <= id < capacity}). Every access takes one of a fixed set of striped
+ * locks. The {@link Customer} overloads use {@link Customer#getId()} only; the balance and flags
+ * of the {@code Customer} object itself are neither read nor written.
+ * <p>
+ * Deposit, withdraw, credit and VIP rules are the same as {@link AccountManagerImpl}; per-customer
+ * credit limits are not stored off-heap, so the tier limits of the {@link CreditPolicy} apply.
+ */
+public class OffHeapAccountManager implements AccountManager {
+    private static final int RECORD_SIZE = 16;
+    private static final int BALANCE_OFFSET = 0;
+    private static final int FLAGS_OFFSET = 8;
+    private static final int OPEN = 1;
+    private static final int CREDIT_ALLOWED = 2;
+    private static final int VIP = 4;
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_RECORDS = 1 << CHUNK_BITS;
+    private static final int STRIPES = 256;
+
+    private final long capacity;
+    private final AtomicReferenceArray<ByteBuffer> chunks;
+    private final Object[] stripes = new Object[STRIPES];
+    private volatile CreditPolicy creditPolicy = CreditPolicy.defaultPolicy();
+
+    public OffHeapAccountManager(long capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.chunks = new AtomicReferenceArray<>((int) ((capacity + CHUNK_RECORDS - 1) >>> CHUNK_BITS));
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public void setCreditPolicy(CreditPolicy creditPolicy) {
+        this.creditPolicy = creditPolicy;
+    }
+
+    /**
+     * Creates or overwrites the account record for {@code customerId}.
+     */
+    public void open(long customerId, long balance, boolean creditAllowed, boolean vip) {
+        if (customerId < 0 || customerId >= capacity) {
+            throw new IllegalArgumentException("Customer id out of range: " + customerId);
+        }
+        ByteBuffer chunk = allocateChunk(customerId);
+        int offset = offsetOf(customerId);
+        synchronized (stripeFor(customerId)) {
+            chunk.putLong(offset + BALANCE_OFFSET, balance);
+            chunk.putInt(offset + FLAGS_OFFSET, OPEN | (creditAllowed ? CREDIT_ALLOWED : 0) | (vip ? VIP : 0));
+        }
+    }
+
+    public void open(Customer customer) {
+        open(customer.getId(), customer.getBalance(), customer.isCreditAllowed(), customer.isVip());
+    }
+
+    public long getBalance(long customerId) {
+        ByteBuffer chunk = chunk(customerId);
+        int offset = offsetOf(customerId);
+        synchronized (stripeFor(customerId)) {
+            checkOpen(chunk, offset, customerId);
+            return chunk.getLong(offset + BALANCE_OFFSET);
+        }
+    }
+
+    public AccountState readState(long customerId) {
+        ByteBuffer chunk = chunk(customerId);
+        int offset = offsetOf(customerId);
+        synchronized (stripeFor(customerId)) {
+            int flags = checkOpen(chunk, offset, customerId);
+            return new AccountState(chunk.getLong(offset + BALANCE_OFFSET),
+                    (flags & CREDIT_ALLOWED) != 0, (flags & VIP) != 0);
+        }
+    }
+
+    public boolean isCreditAllowed(long customerId) {
+        return (flags(customerId) & CREDIT_ALLOWED) != 0;
+    }
+
+    public boolean isVip(long customerId) {
+        return (flags(customerId) & VIP) != 0;
+    }
+
+    public void setCreditAllowed(long customerId, boolean creditAllowed) {
+        setFlag(customerId, CREDIT_ALLOWED, creditAllowed);
+    }
+
+    public void setVip(long customerId, boolean vip) {
+        setFlag(customerId, VIP, vip);
+    }
+
+    @Override
+    public void deposit(Customer customer, long amount) {
+        deposit(customer.getId(), amount);
+    }
+
+    @Override
+    public WithdrawResult withdraw(Customer customer, long amount) {
+        return withdraw(customer.getId(), amount);
+    }
+
+    @Override
+    public void deposit(long customerId, long amount) {
+        ByteBuffer chunk = chunk(customerId);
+        int offset = offsetOf(customerId);
+        synchronized (stripeFor(customerId)) {
+            checkOpen(chunk, offset, customerId);
+            if (amount <= 0) {
+                return;
+            }
+            chunk.putLong(offset + BALANCE_OFFSET, Money.add(chunk.getLong(offset + BALANCE_OFFSET), amount));
+        }
+    }
+
+    @Override
+    public WithdrawResult withdraw(long customerId, long amount) {
+        ByteBuffer chunk = chunk(customerId);
+        int offset = offsetOf(customerId);
+        synchronized (stripeFor(customerId)) {
+            int flags = checkOpen(chunk, offset, customerId);
+            if (amount <= 0) {
+                return WithdrawResult.SUCCESS;
+            }
+            long balance = chunk.getLong(offset + BALANCE_OFFSET);
+            WithdrawResult rejection = creditPolicy.check(balance, amount,
+                    (flags & CREDIT_ALLOWED) != 0, (flags & VIP) != 0, Customer.TIER_MAX_CREDIT);
+            if (rejection != null) {
+                return rejection;
+            }
+            chunk.putLong(offset + BALANCE_OFFSET, balance - amount);
+            return WithdrawResult.SUCCESS;
+        }
+    }
+
+    @Override
+    public WithdrawResult transfer(Customer from, Customer to, long amount) {
+        return transfer(from.getId(), to.getId(), amount);
+    }
+
+    /**
+     * Holds the stripe locks of both accounts, always taken in stripe order so that cyclic
+     * transfers cannot deadlock; both records are updated under them.
+     */
+    @Override
+    public WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount) {
+        if (fromCustomerId == toCustomerId) {
+            throw new IllegalArgumentException("Cannot transfer to the same customer");
+        }
+        ByteBuffer fromChunk = chunk(fromCustomerId);
+        ByteBuffer toChunk = chunk(toCustomerId);
+        int fromOffset = offsetOf(fromCustomerId);
+        int toOffset = offsetOf(toCustomerId);
+        int fromStripe = stripeIndex(fromCustomerId);
+        int toStripe = stripeIndex(toCustomerId);
+        synchronized (stripes[Math.min(fromStripe, toStripe)]) {
+            synchronized (stripes[Math.max(fromStripe, toStripe)]) {
+                int flags = checkOpen(fromChunk, fromOffset, fromCustomerId);
+                checkOpen(toChunk, toOffset, toCustomerId);
+                if (amount <= 0) {
+                    return WithdrawResult.SUCCESS;
+                }
+                long fromBalance = fromChunk.getLong(fromOffset + BALANCE_OFFSET);
+                WithdrawResult rejection = creditPolicy.check(fromBalance, amount,
+                        (flags & CREDIT_ALLOWED) != 0, (flags & VIP) != 0, Customer.TIER_MAX_CREDIT);
+                if (rejection != null) {
+                    return rejection;
+                }
+                long toBalance = Money.add(toChunk.getLong(toOffset + BALANCE_OFFSET), amount);
+                fromChunk.putLong(fromOffset + BALANCE_OFFSET, fromBalance - amount);
+                toChunk.putLong(toOffset + BALANCE_OFFSET, toBalance);
+                return WithdrawResult.SUCCESS;
+            }
+        }
+    }
+
+    /**
+     * Sums the balances of the given accounts while holding every stripe lock, so no transfer is
+     * half-applied in the result.
+     */
+    public long totalBalance(long... customerIds) {
+        return totalBalance(customerIds, 0);
+    }
+
+    private long totalBalance(long[] customerIds, int stripe) {
+        if (stripe < STRIPES) {
+            synchronized (stripes[stripe]) {
+                return totalBalance(customerIds, stripe + 1);
+            }
+        }
+        long total = 0;
+        for (long customerId : customerIds) {
+            ByteBuffer chunk = chunk(customerId);
+            int offset = offsetOf(customerId);
+            checkOpen(chunk, offset, customerId);
+            total = Money.add(total, chunk.getLong(offset + BALANCE_OFFSET));
+        }
+        return total;
+    }
+
+    private int flags(long customerId) {
+        ByteBuffer chunk = chunk(customerId);
+        int offset = offsetOf(customerId);
+        synchronized (stripeFor(customerId)) {
+            return checkOpen(chunk, offset, customerId);
+        }
+    }
+
+    private void setFlag(long customerId, int flag, boolean set) {
+        ByteBuffer chunk = chunk(customerId);
+        int offset = offsetOf(customerId);
+        synchronized (stripeFor(customerId)) {
+            int flags = checkOpen(chunk, offset, customerId);
+            chunk.putInt(offset + FLAGS_OFFSET, set ? flags | flag : flags & ~flag);
+        }
+    }
+
+    private static int checkOpen(ByteBuffer chunk, int offset, long customerId) {
+        int flags = chunk.getInt(offset + FLAGS_OFFSET);
+        if ((flags & OPEN) == 0) {
+            throw new IllegalArgumentException("Unknown customer: " + customerId);
+        }
+        return flags;
+    }
+
+    private ByteBuffer chunk(long customerId) {
+        ByteBuffer chunk = customerId >= 0 && customerId < capacity ? chunks.get((int) (customerId >>> CHUNK_BITS)) : null;
+        if (chunk == null) {
+            throw new IllegalArgumentException("Unknown customer: " + customerId);
+        }
+        return chunk;
+    }
+
+    private ByteBuffer allocateChunk(long customerId) {
+        int index = (int) (customerId >>> CHUNK_BITS);
+        ByteBuffer chunk = chunks.get(index);
+        if (chunk == null) {
+            chunks.compareAndSet(index, null,
+                    ByteBuffer.allocateDirect(CHUNK_RECORDS * RECORD_SIZE).order(ByteOrder.nativeOrder()));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    private Object stripeFor(long customerId) {
+        return stripes[stripeIndex(customerId)];
+    }
+
+    private static int stripeIndex(long customerId) {
+        return (int) (customerId & (STRIPES - 1));
+    }
+
+    private static int offsetOf(long customerId) {
+        return (int) (customerId & (CHUNK_RECORDS - 1)) * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,22 @@
+package example.account;
+
+public enum WithdrawResult {
+    SUCCESS("success"),
+    INSUFFICIENT_ACCOUNT_BALANCE("insufficient account balance"),
+    MAXIMUM_CREDIT_EXCEEDED("maximum credit exceeded"),
+    VELOCITY_LIMIT_EXCEEDED("withdrawal rate limit exceeded");
+
+    private final String message;
+
+    WithdrawResult(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
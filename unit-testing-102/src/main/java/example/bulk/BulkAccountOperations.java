@@ -0,0 +1,159 @@
+package example.bulk;
+
+import example.account.AccountManager;
+import example.account.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Applies one deposit or withdrawal per customer across a {@link ForkJoinPool}, for batch jobs such
+ * as bonuses, refunds or fees over many customers. The customer list is split into contiguous
+ * ranges that are worked on in parallel; each range writes its outcomes into its own slice of the
+ * result array and keeps its own totals, which are merged on the way back up.
+ * <p>
+ * A customer whose update is rejected with an {@link ArithmeticException} (a deposit that would
+ * overflow the balance) or an {@link IllegalArgumentException} (e.g. an unknown customer) is
+ * recorded as {@link BulkOutcome#FAILED} and the rest of the batch carries on. Any other exception
+ * aborts the batch and propagates; customers already processed keep their updates. The applied
+ * total saturates rather than overflows, so it never turns a finished batch into an exception.
+ * <p>
+ * Lists without fast random access are copied to an {@link ArrayList} first.
+ */
+public class BulkAccountOperations {
+    private static final int MIN_CHUNK = 256;
+    private static final BulkOutcome[] OUTCOMES = BulkOutcome.values();
+
+    private final AccountManager accountManager;
+    private final ForkJoinPool pool;
+
+    public BulkAccountOperations(AccountManager accountManager) {
+        this(accountManager, ForkJoinPool.commonPool());
+    }
+
+    public BulkAccountOperations(AccountManager accountManager, ForkJoinPool pool) {
+        this.accountManager = accountManager;
+        this.pool = pool;
+    }
+
+    public BulkResult depositAll(List<Customer> customers, long amount) {
+        return run(customers, null, amount, true);
+    }
+
+    public BulkResult depositAll(List<Customer> customers, long[] amounts) {
+        checkAmounts(customers, amounts);
+        return run(customers, amounts, 0, true);
+    }
+
+    public BulkResult withdrawAll(List<Customer> customers, long amount) {
+        return run(customers, null, amount, false);
+    }
+
+    public BulkResult withdrawAll(List<Customer> customers, long[] amounts) {
+        checkAmounts(customers, amounts);
+        return run(customers, amounts, 0, false);
+    }
+
+    private BulkResult run(List<Customer> input, long[] amounts, long amount, boolean deposit) {
+        long start = System.nanoTime();
+        List<Customer> customers = input instanceof RandomAccess ? input : new ArrayList<>(input);
+        byte[] outcomes = new byte[customers.size()];
+        int chunk = Math.max(MIN_CHUNK, customers.size() / (pool.getParallelism() * 4));
+        Tally tally = pool.invoke(new Chunk(customers, amounts, amount, deposit, outcomes, 0, customers.size(), chunk));
+        return new BulkResult(outcomes, tally.counts, tally.amount, System.nanoTime() - start);
+    }
+
+    private static void checkAmounts(List<Customer> customers, long[] amounts) {
+        if (amounts.length != customers.size()) {
+            throw new IllegalArgumentException("Expected " + customers.size() + " amounts but got " + amounts.length);
+        }
+    }
+
+    /**
+     * Adds two non-negative totals, capping at {@link Long#MAX_VALUE} instead of failing once every
+     * update has already been applied.
+     */
+    private static long saturatedAdd(long total, long other) {
+        long sum = total + other;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static final class Tally {
+        final long[] counts = new long[OUTCOMES.length];
+        long amount;
+
+        Tally merge(Tally other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            amount = saturatedAdd(amount, other.amount);
+            return this;
+        }
+    }
+
+    private final class Chunk extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Customer> customers;
+        private final long[] amounts;
+        private final long amount;
+        private final boolean deposit;
+        private final byte[] outcomes;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        Chunk(List<Customer> customers, long[] amounts, long amount, boolean deposit, byte[] outcomes,
+              int from, int to, int chunk) {
+            this.customers = customers;
+            this.amounts = amounts;
+            this.amount = amount;
+            this.deposit = deposit;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= chunk) {
+                return apply();
+            }
+            int middle = (from + to) >>> 1;
+            Chunk right = new Chunk(customers, amounts, amount, deposit, outcomes, middle, to, chunk);
+            right.fork();
+            Tally left = new Chunk(customers, amounts, amount, deposit, outcomes, from, middle, chunk).compute();
+            return left.merge(right.join());
+        }
+
+        private Tally apply() {
+            Tally tally = new Tally();
+            for (int i = from; i < to; i++) {
+                long value = amounts == null ? amount : amounts[i];
+                BulkOutcome outcome = applyOne(customers.get(i), value);
+                outcomes[i] = (byte) outcome.ordinal();
+                tally.counts[outcome.ordinal()]++;
+                if (outcome.isApplied() && value > 0) {
+                    tally.amount = saturatedAdd(tally.amount, value);
+                }
+            }
+            return tally;
+        }
+
+        private BulkOutcome applyOne(Customer customer, long value) {
+            try {
+                if (deposit) {
+                    accountManager.deposit(customer, value);
+                    return BulkOutcome.APPLIED;
+                }
+                return BulkOutcome.of(accountManager.withdraw(customer, value));
+            } catch (ArithmeticException | IllegalArgumentException e) {
+                return BulkOutcome.FAILED;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package example.bulk;
+
+import example.account.WithdrawResult;
+
+public enum BulkOutcome {
+    APPLIED,
+    INSUFFICIENT_ACCOUNT_BALANCE,
+    MAXIMUM_CREDIT_EXCEEDED,
+    VELOCITY_LIMIT_EXCEEDED,
+    FAILED;
+
+    public static BulkOutcome of(WithdrawResult withdrawResult) {
+        switch (withdrawResult) {
+            case SUCCESS:
+                return APPLIED;
+            case INSUFFICIENT_ACCOUNT_BALANCE:
+                return INSUFFICIENT_ACCOUNT_BALANCE;
+            case MAXIMUM_CREDIT_EXCEEDED:
+                return MAXIMUM_CREDIT_EXCEEDED;
+            case VELOCITY_LIMIT_EXCEEDED:
+                return VELOCITY_LIMIT_EXCEEDED;
+            default:
+                throw new IllegalArgumentException("Unknown withdraw result: " + withdrawResult);
+        }
+    }
+
+    public boolean isApplied() {
+        return this == APPLIED;
+    }
+}
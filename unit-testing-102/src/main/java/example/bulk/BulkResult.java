@@ -0,0 +1,62 @@
+package example.bulk;
+
+/**
+ * Outcome of a bulk operation: one byte per customer, in input order, plus totals per outcome and
+ * the sum of the amounts actually applied.
+ */
+public class BulkResult {
+    private static final BulkOutcome[] OUTCOMES = BulkOutcome.values();
+
+    private final byte[] outcomes;
+    private final long[] counts;
+    private final long appliedAmount;
+    private final long elapsedNanos;
+
+    BulkResult(byte[] outcomes, long[] counts, long appliedAmount, long elapsedNanos) {
+        this.outcomes = outcomes;
+        this.counts = counts;
+        this.appliedAmount = appliedAmount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int size() {
+        return outcomes.length;
+    }
+
+    public BulkOutcome getOutcome(int index) {
+        return OUTCOMES[outcomes[index]];
+    }
+
+    public long getCount(BulkOutcome outcome) {
+        return counts[outcome.ordinal()];
+    }
+
+    public long getAppliedCount() {
+        return getCount(BulkOutcome.APPLIED);
+    }
+
+    public long getRejectedCount() {
+        return size() - getAppliedCount();
+    }
+
+    /**
+     * Sum of the positive amounts applied, or {@link Long#MAX_VALUE} if that sum does not fit in a
+     * {@code long}.
+     */
+    public long getAppliedAmount() {
+        return appliedAmount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{size=" + size()
+                + ", applied=" + getAppliedCount()
+                + ", rejected=" + getRejectedCount()
+                + ", appliedAmount=" + appliedAmount
+                + ", elapsedNanos=" + elapsedNanos + '}';
+    }
+}
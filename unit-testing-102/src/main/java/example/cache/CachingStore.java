@@ -0,0 +1,98 @@
+package example.cache;
+
+import example.account.Customer;
+import example.store.Cart;
+import example.store.LineItem;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+import example.store.Store;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Invalidates the {@link ProductCache} entry of every product whose stock a purchase on the wrapped
+ * {@link Store} took or found exhausted, so browsing never sees stock that has already been sold
+ * through this store. Changes made elsewhere are picked up when the entry expires.
+ */
+public class CachingStore implements Store {
+
+    private final Store delegate;
+    private final ProductCache cache;
+
+    public CachingStore(Store delegate, ProductCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    public ProductCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer) {
+        PurchaseResult result = tryBuy(product, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer, int quantity) {
+        PurchaseResult result = tryBuy(product, customer, quantity);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buyAll(Cart cart, Customer customer) {
+        PurchaseResult result = tryBuyAll(cart, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer) {
+        PurchaseResult result = delegate.tryBuy(product, customer);
+        if (changesStock(result)) {
+            cache.invalidate(product.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer, int quantity) {
+        PurchaseResult result = delegate.tryBuy(product, customer, quantity);
+        if (changesStock(result)) {
+            cache.invalidate(product.getId());
+        }
+        return result;
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer) {
+        return tryBuyAll(cart, customer, item -> {
+        });
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock) {
+        PurchaseResult result = delegate.tryBuyAll(cart, customer, outOfStock);
+        if (changesStock(result)) {
+            List<LineItem> items = cart.getItems();
+            for (int i = 0; i < items.size(); i++) {
+                cache.invalidate(items.get(i).getProduct().getId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A sale changed the stock; an out-of-stock result means the cached stock was wrong already.
+     */
+    private static boolean changesStock(PurchaseResult result) {
+        return result.isSuccess() || result == PurchaseResult.OUT_OF_STOCK;
+    }
+}
@@ -0,0 +1,271 @@
+package example.cache;
+
+import example.store.Product;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache of product price and stock in front of a slow {@link ProductSource}.
+ * <p>
+ * Product ids are spread over independently locked segments, each a segmented LRU: a new entry
+ * starts in the probation area and is promoted to the protected area on its second hit, so a scan
+ * over many products that are read once only ever evicts other probation entries and leaves the
+ * frequently browsed ones in place.
+ * <p>
+ * Every entry expires after the time-to-live, which bounds how long stock changed outside a
+ * {@link CachingStore} (restocks, flash sales, other stores) can be served stale. The source is
+ * read outside the segment lock, and concurrent misses for the same product share one load. A load
+ * that overlaps an {@link #invalidate(long)} of its product is returned to its callers but not
+ * cached, so an invalidation is never undone by a load that started before it; loads of other
+ * products are unaffected.
+ */
+public class ProductCache {
+    private static final int SEGMENTS = 16;
+    private static final long DEFAULT_TTL_MILLIS = 1000;
+
+    private final ProductSource source;
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache whose entries expire after {@value #DEFAULT_TTL_MILLIS} ms.
+     */
+    public ProductCache(ProductSource source, int maxEntries) {
+        this(source, maxEntries, DEFAULT_TTL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public ProductCache(ProductSource source, int maxEntries, long ttl, TimeUnit unit) {
+        this(source, maxEntries, ttl, unit, System::nanoTime);
+    }
+
+    ProductCache(ProductSource source, int maxEntries, long ttl, TimeUnit unit, LongSupplier clock) {
+        if (maxEntries <= 0 || ttl <= 0) {
+            throw new IllegalArgumentException("Size and time-to-live must be positive");
+        }
+        this.source = source;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Returns the cached state of the product, loading it from the source on a miss, or
+     * {@code null} if the source does not know the product.
+     */
+    public ProductSnapshot get(long productId) {
+        Segment segment = segmentFor(productId);
+        Load load;
+        boolean loader = false;
+        synchronized (segment) {
+            ProductSnapshot cached = segment.get(productId, clock.getAsLong());
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            load = segment.loading.get(productId);
+            if (load == null) {
+                load = new Load();
+                segment.loading.put(productId, load);
+                loader = true;
+            }
+        }
+        misses.increment();
+        return loader ? load(segment, productId, load) : await(load);
+    }
+
+    public long getPrice(long productId) {
+        return require(productId).getPrice();
+    }
+
+    public int getQuantity(long productId) {
+        return require(productId).getQuantity();
+    }
+
+    public void invalidate(long productId) {
+        Segment segment = segmentFor(productId);
+        synchronized (segment) {
+            segment.remove(productId);
+            Load load = segment.loading.remove(productId);
+            if (load != null) {
+                load.stale = true;
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.probation.size() + segment.protectedEntries.size();
+            }
+        }
+        return size;
+    }
+
+    private ProductSnapshot load(Segment segment, long productId, Load load) {
+        ProductSnapshot loaded;
+        try {
+            Product product = source.load(productId);
+            loaded = product == null ? null : ProductSnapshot.of(product);
+        } catch (RuntimeException | Error e) {
+            synchronized (segment) {
+                segment.loading.remove(productId, load);
+            }
+            load.future.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (segment) {
+            segment.loading.remove(productId, load);
+            if (loaded != null && !load.stale) {
+                evictions.add(segment.put(productId, loaded, clock.getAsLong() + ttlNanos));
+            }
+        }
+        load.future.complete(loaded);
+        return loaded;
+    }
+
+    private static ProductSnapshot await(Load load) {
+        try {
+            return load.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private ProductSnapshot require(long productId) {
+        ProductSnapshot snapshot = get(productId);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Unknown product: " + productId);
+        }
+        return snapshot;
+    }
+
+    private Segment segmentFor(long productId) {
+        return segments[(Long.hashCode(productId) * 0x9E3779B9) >>> 28];
+    }
+
+    /**
+     * A read of the source in progress; {@code stale} once its product was invalidated meanwhile.
+     * Guarded by the segment lock.
+     */
+    private static final class Load {
+        private final CompletableFuture<ProductSnapshot> future = new CompletableFuture<>();
+        private boolean stale;
+    }
+
+    private static final class Entry {
+        private final ProductSnapshot snapshot;
+        private final long expiresAt;
+
+        Entry(ProductSnapshot snapshot, long expiresAt) {
+            this.snapshot = snapshot;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment {
+        private final int capacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<Long, Entry> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<Long, Entry> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Long, Load> loading = new HashMap<>();
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity * 4 / 5;
+        }
+
+        /**
+         * Returns the live entry for the product, dropping it instead if it expired by {@code now}.
+         */
+        ProductSnapshot get(long productId, long now) {
+            Entry entry = protectedEntries.get(productId);
+            if (entry == null) {
+                entry = probation.get(productId);
+                if (entry == null) {
+                    return null;
+                }
+                if (now - entry.expiresAt < 0 && protectedCapacity > 0) {
+                    probation.remove(productId);
+                    protectedEntries.put(productId, entry);
+                    if (protectedEntries.size() > protectedCapacity) {
+                        Map.Entry<Long, Entry> demoted = removeEldest(protectedEntries);
+                        probation.put(demoted.getKey(), demoted.getValue());
+                    }
+                }
+            }
+            if (now - entry.expiresAt >= 0) {
+                remove(productId);
+                return null;
+            }
+            return entry.snapshot;
+        }
+
+        /**
+         * Returns the number of entries evicted to make room.
+         */
+        int put(long productId, ProductSnapshot snapshot, long expiresAt) {
+            Entry entry = new Entry(snapshot, expiresAt);
+            if (protectedEntries.containsKey(productId)) {
+                protectedEntries.put(productId, entry);
+                return 0;
+            }
+            probation.put(productId, entry);
+            int evicted = 0;
+            while (probation.size() + protectedEntries.size() > capacity) {
+                removeEldest(probation.isEmpty() ? protectedEntries : probation);
+                evicted++;
+            }
+            return evicted;
+        }
+
+        void remove(long productId) {
+            if (protectedEntries.remove(productId) == null) {
+                probation.remove(productId);
+            }
+        }
+
+        private static Map.Entry<Long, Entry> removeEldest(LinkedHashMap<Long, Entry> entries) {
+            Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+            Map.Entry<Long, Entry> entry = eldest.next();
+            Map.Entry<Long, Entry> removed = new AbstractMap.SimpleImmutableEntry<>(entry);
+            eldest.remove();
+            return removed;
+        }
+    }
+}
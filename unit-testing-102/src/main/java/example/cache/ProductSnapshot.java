@@ -0,0 +1,41 @@
+package example.cache;
+
+import example.store.Product;
+
+public final class ProductSnapshot {
+    private final long id;
+    private final String name;
+    private final long price;
+    private final int quantity;
+
+    public ProductSnapshot(long id, String name, long price, int quantity) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    static ProductSnapshot of(Product product) {
+        return new ProductSnapshot(product.getId(), product.getName(), product.getPrice(), product.getQuantity());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public boolean isInStock() {
+        return quantity > 0;
+    }
+}
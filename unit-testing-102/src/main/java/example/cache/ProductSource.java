@@ -0,0 +1,15 @@
+package example.cache;
+
+import example.store.Product;
+
+/**
+ * Backing store the {@link ProductCache} reads through to, e.g. a catalog service or database.
+ */
+@FunctionalInterface
+public interface ProductSource {
+
+    /**
+     * Returns the current product, or {@code null} if there is none with that id.
+     */
+    Product load(long productId);
+}
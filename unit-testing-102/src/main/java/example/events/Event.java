@@ -0,0 +1,95 @@
+package example.events;
+
+import example.account.WithdrawResult;
+import example.store.PurchaseResult;
+
+/**
+ * One account or store change. Instances live in the slots of an {@link EventBus} and are
+ * overwritten in place, so they are only valid inside {@link EventListener#onEvent(Event)}.
+ * Fields that do not apply to the event's type are zero or {@code null}.
+ */
+public final class Event {
+    private long sequence;
+    private long timestampNanos;
+    private EventType type;
+    private long customerId;
+    private long productId;
+    private long counterpartyId;
+    private int quantity;
+    private long amount;
+    private WithdrawResult withdrawResult;
+    private PurchaseResult purchaseResult;
+
+    Event() {
+    }
+
+    void set(long sequence, EventType type, long customerId, long productId, long counterpartyId, int quantity,
+             long amount, WithdrawResult withdrawResult, PurchaseResult purchaseResult) {
+        this.sequence = sequence;
+        this.timestampNanos = System.nanoTime();
+        this.type = type;
+        this.customerId = customerId;
+        this.productId = productId;
+        this.counterpartyId = counterpartyId;
+        this.quantity = quantity;
+        this.amount = amount;
+        this.withdrawResult = withdrawResult;
+        this.purchaseResult = purchaseResult;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public long getProductId() {
+        return productId;
+    }
+
+    /**
+     * The receiving customer of a {@link EventType#TRANSFER}.
+     */
+    public long getCounterpartyId() {
+        return counterpartyId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public WithdrawResult getWithdrawResult() {
+        return withdrawResult;
+    }
+
+    public PurchaseResult getPurchaseResult() {
+        return purchaseResult;
+    }
+
+    @Override
+    public String toString() {
+        return "Event{sequence=" + sequence
+                + ", type=" + type
+                + ", customerId=" + customerId
+                + ", productId=" + productId
+                + ", counterpartyId=" + counterpartyId
+                + ", quantity=" + quantity
+                + ", amount=" + amount
+                + ", withdrawResult=" + withdrawResult
+                + ", purchaseResult=" + purchaseResult + '}';
+    }
+}
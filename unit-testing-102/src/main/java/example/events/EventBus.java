@@ -0,0 +1,185 @@
+package example.events;
+
+import example.account.WithdrawResult;
+import example.store.PurchaseResult;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process broadcast of account and store changes. Events are written into a power-of-two ring
+ * of preallocated {@link Event} slots and every subscriber reads every event on its own thread,
+ * tracking its own position, so the ring is single-write/multi-read per slot.
+ * <p>
+ * Publishing never allocates and never blocks: a publisher claims the next sequence with a
+ * compare-and-set, fills the slot in place and marks it published. When the slowest subscriber is
+ * a whole ring behind, the event is dropped and counted in {@link #getDropped()} rather than making
+ * the purchase path wait.
+ */
+public class EventBus implements AutoCloseable {
+    private static final long IDLE_PARK_NANOS = 50_000;
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private final int mask;
+    private final Event[] events;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+    private volatile long gatingSequence;
+
+    public EventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, at least 2");
+        }
+        this.mask = capacity - 1;
+        this.events = new Event[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Starts delivering events published from now on to {@code listener} on a new daemon thread.
+     */
+    public synchronized Subscription subscribe(EventListener listener) {
+        Subscription subscription = new Subscription(listener, claimed.get());
+        Subscription[] current = subscriptions;
+        Subscription[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = subscription;
+        subscriptions = next;
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public boolean publishDeposit(long customerId, long amount) {
+        return publish(EventType.DEPOSIT, customerId, 0, 0, 0, amount, WithdrawResult.SUCCESS, null);
+    }
+
+    public boolean publishWithdraw(long customerId, long amount, WithdrawResult result) {
+        return publish(EventType.WITHDRAW, customerId, 0, 0, 0, amount, result, null);
+    }
+
+    public boolean publishTransfer(long fromCustomerId, long toCustomerId, long amount, WithdrawResult result) {
+        return publish(EventType.TRANSFER, fromCustomerId, 0, toCustomerId, 0, amount, result, null);
+    }
+
+    /**
+     * Publishes an {@link EventType#OUT_OF_STOCK} event for that result and a
+     * {@link EventType#PURCHASE} event for any other.
+     */
+    public boolean publishPurchase(long customerId, long productId, int quantity, long amount, PurchaseResult result) {
+        EventType type = result == PurchaseResult.OUT_OF_STOCK ? EventType.OUT_OF_STOCK : EventType.PURCHASE;
+        return publish(type, customerId, productId, 0, quantity, amount, null, result);
+    }
+
+    /**
+     * Number of events dropped because a subscriber was a full ring behind.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.running = false;
+        }
+        try {
+            for (Subscription subscription : subscriptions) {
+                subscription.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscriptions = NO_SUBSCRIPTIONS;
+    }
+
+    private boolean publish(EventType type, long customerId, long productId, long counterpartyId, int quantity,
+                            long amount, WithdrawResult withdrawResult, PurchaseResult purchaseResult) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            long wrapPoint = sequence - events.length;
+            if (wrapPoint >= gatingSequence) {
+                long slowest = slowestCursor(sequence);
+                gatingSequence = slowest;
+                if (wrapPoint >= slowest) {
+                    dropped.increment();
+                    return false;
+                }
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int index = (int) sequence & mask;
+        events[index].set(sequence, type, customerId, productId, counterpartyId, quantity, amount,
+                withdrawResult, purchaseResult);
+        published.set(index, sequence);
+        return true;
+    }
+
+    private long slowestCursor(long sequence) {
+        long slowest = sequence;
+        for (Subscription subscription : subscriptions) {
+            slowest = Math.min(slowest, subscription.cursor);
+        }
+        return slowest;
+    }
+
+    private synchronized void remove(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] next = new Subscription[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                subscriptions = next;
+                return;
+            }
+        }
+    }
+
+    public final class Subscription {
+        private final EventListener listener;
+        private final Thread thread;
+        private volatile long cursor;
+        private volatile boolean running = true;
+
+        private Subscription(EventListener listener, long cursor) {
+            this.listener = listener;
+            this.cursor = cursor;
+            this.thread = new Thread(this::deliverLoop, "event-subscriber");
+            this.thread.setDaemon(true);
+        }
+
+        /**
+         * Stops delivery to this subscriber and waits for its thread to finish.
+         */
+        public void cancel() throws InterruptedException {
+            running = false;
+            thread.join();
+            remove(this);
+        }
+
+        private void deliverLoop() {
+            long next = cursor;
+            while (running) {
+                int index = (int) next & mask;
+                if (published.get(index) != next) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                try {
+                    listener.onEvent(events[index]);
+                } catch (RuntimeException e) {
+                    // a failing subscriber must not stall the others
+                }
+                cursor = ++next;
+            }
+        }
+    }
+}
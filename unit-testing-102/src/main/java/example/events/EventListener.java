@@ -0,0 +1,11 @@
+package example.events;
+
+@FunctionalInterface
+public interface EventListener {
+
+    /**
+     * Called on the subscription's own thread. The event is reused once this returns, so copy
+     * whatever has to outlive the call.
+     */
+    void onEvent(Event event);
+}
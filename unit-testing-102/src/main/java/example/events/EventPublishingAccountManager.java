@@ -0,0 +1,64 @@
+package example.events;
+
+import example.account.AccountManager;
+import example.account.Customer;
+import example.account.WithdrawResult;
+
+/**
+ * Publishes every deposit and every withdraw and transfer outcome of the wrapped {@link AccountManager} to an
+ * {@link EventBus}. Deposits of a non-positive amount change nothing and are not published.
+ */
+public class EventPublishingAccountManager implements AccountManager {
+
+    private final AccountManager delegate;
+    private final EventBus bus;
+
+    public EventPublishingAccountManager(AccountManager delegate, EventBus bus) {
+        this.delegate = delegate;
+        this.bus = bus;
+    }
+
+    @Override
+    public void deposit(Customer customer, long amount) {
+        delegate.deposit(customer, amount);
+        if (amount > 0) {
+            bus.publishDeposit(customer.getId(), amount);
+        }
+    }
+
+    @Override
+    public WithdrawResult withdraw(Customer customer, long amount) {
+        WithdrawResult result = delegate.withdraw(customer, amount);
+        bus.publishWithdraw(customer.getId(), amount, result);
+        return result;
+    }
+
+    @Override
+    public void deposit(long customerId, long amount) {
+        delegate.deposit(customerId, amount);
+        if (amount > 0) {
+            bus.publishDeposit(customerId, amount);
+        }
+    }
+
+    @Override
+    public WithdrawResult withdraw(long customerId, long amount) {
+        WithdrawResult result = delegate.withdraw(customerId, amount);
+        bus.publishWithdraw(customerId, amount, result);
+        return result;
+    }
+
+    @Override
+    public WithdrawResult transfer(Customer from, Customer to, long amount) {
+        WithdrawResult result = delegate.transfer(from, to, amount);
+        bus.publishTransfer(from.getId(), to.getId(), amount, result);
+        return result;
+    }
+
+    @Override
+    public WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount) {
+        WithdrawResult result = delegate.transfer(fromCustomerId, toCustomerId, amount);
+        bus.publishTransfer(fromCustomerId, toCustomerId, amount, result);
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package example.events;
+
+import example.account.Customer;
+import example.money.Money;
+import example.store.Cart;
+import example.store.LineItem;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+import example.store.Store;
+
+import java.util.function.Consumer;
+
+/**
+ * Publishes the outcome of every purchase on the wrapped {@link Store} to an {@link EventBus}. A cart
+ * produces one event per line item carrying the outcome of the whole cart, except when it fails
+ * for lack of stock: then only the line item the wrapped store reports as unreservable gets an
+ * event.
+ */
+public class EventPublishingStore implements Store {
+
+    private final Store delegate;
+    private final EventBus bus;
+
+    public EventPublishingStore(Store delegate, EventBus bus) {
+        this.delegate = delegate;
+        this.bus = bus;
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer) {
+        PurchaseResult result = tryBuy(product, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer, int quantity) {
+        PurchaseResult result = tryBuy(product, customer, quantity);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buyAll(Cart cart, Customer customer) {
+        PurchaseResult result = tryBuyAll(cart, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer) {
+        PurchaseResult result = delegate.tryBuy(product, customer);
+        bus.publishPurchase(customer.getId(), product.getId(), 1, product.getPrice(), result);
+        return result;
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer, int quantity) {
+        PurchaseResult result = delegate.tryBuy(product, customer, quantity);
+        bus.publishPurchase(customer.getId(), product.getId(), quantity,
+                Money.multiply(product.getPrice(), quantity), result);
+        return result;
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer) {
+        return tryBuyAll(cart, customer, item -> {
+        });
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock) {
+        PurchaseResult result = delegate.tryBuyAll(cart, customer, item -> {
+            publish(customer, item, PurchaseResult.OUT_OF_STOCK);
+            outOfStock.accept(item);
+        });
+        if (result != PurchaseResult.OUT_OF_STOCK) {
+            for (LineItem item : cart.getItems()) {
+                publish(customer, item, result);
+            }
+        }
+        return result;
+    }
+
+    private void publish(Customer customer, LineItem item, PurchaseResult result) {
+        StockItem product = item.getProduct();
+        bus.publishPurchase(customer.getId(), product.getId(), item.getQuantity(),
+                Money.multiply(product.getPrice(), item.getQuantity()), result);
+    }
+}
@@ -0,0 +1,9 @@
+package example.events;
+
+public enum EventType {
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER,
+    PURCHASE,
+    OUT_OF_STOCK
+}
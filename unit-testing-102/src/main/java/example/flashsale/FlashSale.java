@@ -0,0 +1,173 @@
+package example.flashsale;
+
+import example.account.AccountManager;
+import example.account.Customer;
+import example.account.WithdrawResult;
+import example.money.Money;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sells one {@link StockItem}'s stock under heavy contention. On creation the stock is taken out of
+ * the product and split into as many token pools as there are cores, each on its own cache line; a
+ * buyer claims a token from its home pool with a compare-and-set and only looks at the other pools
+ * once that one is empty, so concurrent buyers do not fight over a single quantity.
+ * <p>
+ * Java cannot tell which core a thread runs on, so, as in
+ * {@link java.util.concurrent.atomic.LongAdder}, the home pool comes from a per-thread probe: it
+ * starts from a hash of the thread id and moves to another pool whenever the thread loses a
+ * compare-and-set, which spreads contending threads over the pools. Requests above the
+ * {@link TokenBucket} rate are rejected as {@link PurchaseResult#THROTTLED} before any stock or
+ * payment is touched.
+ * <p>
+ * {@link #end()} hands the unsold tokens back to the product.
+ */
+public class FlashSale {
+    private static final int STRIDE = 16;
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> {
+        long id = Thread.currentThread().getId();
+        return new int[]{(int) ((id * 0x9E3779B97F4A7C15L) >>> 32) | 1};
+    });
+
+    private final StockItem product;
+    private final AccountManager accountManager;
+    private final TokenBucket admission;
+    private final int mask;
+    private final AtomicIntegerArray pools;
+    private volatile boolean ended;
+
+    public FlashSale(StockItem product, int units, AccountManager accountManager, TokenBucket admission) {
+        this(product, units, accountManager, admission, Runtime.getRuntime().availableProcessors());
+    }
+
+    FlashSale(StockItem product, int units, AccountManager accountManager, TokenBucket admission, int poolCount) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+        if (!product.reserve(units)) {
+            throw new IllegalArgumentException("Product has fewer than " + units + " units in stock");
+        }
+        int count = Integer.highestOneBit(Math.max(1, Math.min(poolCount, units)));
+        this.product = product;
+        this.accountManager = accountManager;
+        this.admission = admission;
+        this.mask = count - 1;
+        this.pools = new AtomicIntegerArray(count * STRIDE);
+        for (int i = 0; i < count; i++) {
+            pools.set(i * STRIDE, units / count + (i < units % count ? 1 : 0));
+        }
+    }
+
+    public StockItem getProduct() {
+        return product;
+    }
+
+    public PurchaseResult tryBuy(Customer customer) {
+        return tryBuy(customer, 1);
+    }
+
+    /**
+     * Claims {@code quantity} tokens, taking them from several pools if the home pool runs short,
+     * and charges for all of them in one payment; one admission permit is used per call.
+     */
+    public PurchaseResult tryBuy(Customer customer, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        long total = Money.multiply(product.getPrice(), quantity);
+        if (!admission.tryAcquire()) {
+            return PurchaseResult.THROTTLED;
+        }
+        int home = homePool();
+        if (!claim(home, quantity)) {
+            return PurchaseResult.OUT_OF_STOCK;
+        }
+        WithdrawResult status;
+        try {
+            status = accountManager.withdraw(customer, total);
+        } catch (RuntimeException e) {
+            refund(home, quantity);
+            throw e;
+        }
+        if (!status.isSuccess()) {
+            refund(home, quantity);
+            return PurchaseResult.of(status);
+        }
+        return PurchaseResult.SUCCESS;
+    }
+
+    public int getRemaining() {
+        int remaining = 0;
+        for (int i = 0; i <= mask; i++) {
+            remaining += pools.get(i * STRIDE);
+        }
+        return remaining;
+    }
+
+    /**
+     * Stops the sale and releases the unsold units back to the product. Purchases still in flight
+     * may complete; a token refunded by a failed payment after this point also goes to the product.
+     */
+    public void end() {
+        ended = true;
+        for (int i = 0; i <= mask; i++) {
+            drain(i);
+        }
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    private boolean claim(int home, int units) {
+        int claimed = 0;
+        for (int i = 0; i <= mask && claimed < units; i++) {
+            int index = ((home + i) & mask) * STRIDE;
+            int tokens;
+            while (claimed < units && (tokens = pools.get(index)) > 0) {
+                int taken = Math.min(tokens, units - claimed);
+                if (pools.compareAndSet(index, tokens, tokens - taken)) {
+                    claimed += taken;
+                } else {
+                    advanceProbe();
+                }
+            }
+        }
+        if (claimed < units) {
+            if (claimed > 0) {
+                refund(home, claimed);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void refund(int pool, int units) {
+        pools.addAndGet(pool * STRIDE, units);
+        if (ended) {
+            drain(pool);
+        }
+    }
+
+    private void drain(int pool) {
+        int tokens = pools.getAndSet(pool * STRIDE, 0);
+        if (tokens > 0) {
+            product.release(tokens);
+        }
+    }
+
+    private int homePool() {
+        return PROBE.get()[0] & mask;
+    }
+
+    private static void advanceProbe() {
+        int[] probe = PROBE.get();
+        int next = probe[0];
+        next ^= next << 13;
+        next ^= next >>> 17;
+        next ^= next << 5;
+        probe[0] = next;
+    }
+}
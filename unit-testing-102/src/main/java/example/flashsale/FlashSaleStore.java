@@ -0,0 +1,97 @@
+package example.flashsale;
+
+import example.account.AccountManager;
+import example.account.Customer;
+import example.store.Cart;
+import example.store.LineItem;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+import example.store.Store;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Routes purchases of a single product, one unit or several, to that product's running
+ * {@link FlashSale} and everything else to the wrapped {@link Store}. Carts always go to the
+ * wrapped store, so while a sale runs its product can only be bought on its own.
+ */
+public class FlashSaleStore implements Store {
+
+    private final Store delegate;
+    private final AccountManager accountManager;
+    private final Map<StockItem, FlashSale> sales = new ConcurrentHashMap<>();
+
+    public FlashSaleStore(Store delegate, AccountManager accountManager) {
+        this.delegate = delegate;
+        this.accountManager = accountManager;
+    }
+
+    public FlashSale startFlashSale(StockItem product, int units, TokenBucket admission) {
+        FlashSale sale = new FlashSale(product, units, accountManager, admission);
+        FlashSale running = sales.putIfAbsent(product, sale);
+        if (running != null) {
+            sale.end();
+            throw new IllegalStateException("Flash sale already running for " + product.getName());
+        }
+        return sale;
+    }
+
+    public void endFlashSale(StockItem product) {
+        FlashSale sale = sales.remove(product);
+        if (sale != null) {
+            sale.end();
+        }
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer) {
+        PurchaseResult result = tryBuy(product, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer, int quantity) {
+        PurchaseResult result = tryBuy(product, customer, quantity);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buyAll(Cart cart, Customer customer) {
+        delegate.buyAll(cart, customer);
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer) {
+        FlashSale sale = sales.get(product);
+        if (sale == null) {
+            return delegate.tryBuy(product, customer);
+        }
+        return sale.tryBuy(customer);
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer, int quantity) {
+        FlashSale sale = sales.get(product);
+        if (sale == null) {
+            return delegate.tryBuy(product, customer, quantity);
+        }
+        return sale.tryBuy(customer, quantity);
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer) {
+        return tryBuyAll(cart, customer, item -> {
+        });
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock) {
+        return delegate.tryBuyAll(cart, customer, outOfStock);
+    }
+}
@@ -0,0 +1,141 @@
+package example.idempotency;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-evicting memo of outcomes keyed by request id.
+ * <p>
+ * Keys are spread over independently locked segments, each an insertion-ordered map that drops its
+ * oldest entries once it is over its share of {@code maxEntries} or they are older than the
+ * time-to-live. Entries whose operation is still running are never dropped, so a retry of an
+ * in-flight request always finds it; a segment may exceed its share while that many are pending.
+ * <p>
+ * The operation itself runs outside the segment lock: the first caller for an id publishes a
+ * pending future and runs it, concurrent repeats wait for that future, and later repeats get the
+ * stored outcome. If the operation throws, the id is forgotten so a retry runs it again.
+ */
+public class DedupCache<V> {
+    private static final int SEGMENTS = 16;
+
+    private final List<Segment<V>> segments;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    public DedupCache(int maxEntries, long ttl, TimeUnit unit) {
+        this(maxEntries, ttl, unit, System::nanoTime);
+    }
+
+    DedupCache(int maxEntries, long ttl, TimeUnit unit, LongSupplier clock) {
+        if (maxEntries <= 0 || ttl <= 0) {
+            throw new IllegalArgumentException("Size and time-to-live must be positive");
+        }
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+        this.segments = new ArrayList<>(SEGMENTS);
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments.add(new Segment<>(perSegment));
+        }
+    }
+
+    /**
+     * Returns the outcome recorded for {@code requestId}, running {@code operation} to produce it if
+     * there is none.
+     */
+    public V getOrCompute(String requestId, Supplier<V> operation) {
+        Segment<V> segment = segments.get((requestId.hashCode() & Integer.MAX_VALUE) % SEGMENTS);
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = segment.putIfAbsent(requestId, created, clock.getAsLong(), ttlNanos);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            V value = operation.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            segment.remove(requestId, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private static final class Segment<V> {
+        private final int capacity;
+        private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>();
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized CompletableFuture<V> putIfAbsent(String key, CompletableFuture<V> future, long now, long ttlNanos) {
+            evictExpired(now, ttlNanos);
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                return entry.future;
+            }
+            entries.put(key, new Entry<>(future, now));
+            Iterator<Entry<V>> oldest = entries.values().iterator();
+            while (entries.size() > capacity && oldest.hasNext()) {
+                if (oldest.next().future.isDone()) {
+                    oldest.remove();
+                }
+            }
+            return null;
+        }
+
+        synchronized void remove(String key, CompletableFuture<V> future) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.future == future) {
+                entries.remove(key);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        private void evictExpired(long now, long ttlNanos) {
+            Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry<V> entry = iterator.next();
+                if (now - entry.createdAt < ttlNanos) {
+                    return;
+                }
+                if (entry.future.isDone()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        final CompletableFuture<V> future;
+        final long createdAt;
+
+        Entry(CompletableFuture<V> future, long createdAt) {
+            this.future = future;
+            this.createdAt = createdAt;
+        }
+    }
+}
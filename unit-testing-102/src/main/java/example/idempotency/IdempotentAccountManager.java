@@ -0,0 +1,73 @@
+package example.idempotency;
+
+import example.account.AccountManager;
+import example.account.Customer;
+import example.account.WithdrawResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds request-id overloads of {@code withdraw} and {@code transfer} that run the operation at most
+ * once per request id and hand the original {@link WithdrawResult} back to retries. Calls without a
+ * request id go straight to the wrapped {@link AccountManager}.
+ */
+public class IdempotentAccountManager implements AccountManager {
+
+    private final AccountManager delegate;
+    private final DedupCache<WithdrawResult> results;
+
+    public IdempotentAccountManager(AccountManager delegate, int maxRequests, long ttl, TimeUnit unit) {
+        this(delegate, new DedupCache<>(maxRequests, ttl, unit));
+    }
+
+    IdempotentAccountManager(AccountManager delegate, DedupCache<WithdrawResult> results) {
+        this.delegate = delegate;
+        this.results = results;
+    }
+
+    public WithdrawResult withdraw(String requestId, Customer customer, long amount) {
+        return results.getOrCompute(requestId, () -> delegate.withdraw(customer, amount));
+    }
+
+    public WithdrawResult withdraw(String requestId, long customerId, long amount) {
+        return results.getOrCompute(requestId, () -> delegate.withdraw(customerId, amount));
+    }
+
+    public WithdrawResult transfer(String requestId, Customer from, Customer to, long amount) {
+        return results.getOrCompute(requestId, () -> delegate.transfer(from, to, amount));
+    }
+
+    public WithdrawResult transfer(String requestId, long fromCustomerId, long toCustomerId, long amount) {
+        return results.getOrCompute(requestId, () -> delegate.transfer(fromCustomerId, toCustomerId, amount));
+    }
+
+    @Override
+    public void deposit(Customer customer, long amount) {
+        delegate.deposit(customer, amount);
+    }
+
+    @Override
+    public WithdrawResult withdraw(Customer customer, long amount) {
+        return delegate.withdraw(customer, amount);
+    }
+
+    @Override
+    public void deposit(long customerId, long amount) {
+        delegate.deposit(customerId, amount);
+    }
+
+    @Override
+    public WithdrawResult withdraw(long customerId, long amount) {
+        return delegate.withdraw(customerId, amount);
+    }
+
+    @Override
+    public WithdrawResult transfer(Customer from, Customer to, long amount) {
+        return delegate.transfer(from, to, amount);
+    }
+
+    @Override
+    public WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount) {
+        return delegate.transfer(fromCustomerId, toCustomerId, amount);
+    }
+}
@@ -0,0 +1,87 @@
+package example.idempotency;
+
+import example.account.Customer;
+import example.store.Cart;
+import example.store.LineItem;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+import example.store.Store;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Adds request-id overloads of the purchase methods that run a purchase at most once per request id
+ * and hand the original {@link PurchaseResult} back to retries, so a client retrying after a
+ * timeout is never charged twice. Calls without a request id go straight to the wrapped
+ * {@link Store}.
+ */
+public class IdempotentStore implements Store {
+
+    private final Store delegate;
+    private final DedupCache<PurchaseResult> results;
+
+    public IdempotentStore(Store delegate, int maxRequests, long ttl, TimeUnit unit) {
+        this(delegate, new DedupCache<>(maxRequests, ttl, unit));
+    }
+
+    IdempotentStore(Store delegate, DedupCache<PurchaseResult> results) {
+        this.delegate = delegate;
+        this.results = results;
+    }
+
+    public void buy(String requestId, StockItem product, Customer customer) {
+        PurchaseResult result = tryBuy(requestId, product, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    public PurchaseResult tryBuy(String requestId, StockItem product, Customer customer) {
+        return results.getOrCompute(requestId, () -> delegate.tryBuy(product, customer));
+    }
+
+    public PurchaseResult tryBuy(String requestId, StockItem product, Customer customer, int quantity) {
+        return results.getOrCompute(requestId, () -> delegate.tryBuy(product, customer, quantity));
+    }
+
+    public PurchaseResult tryBuyAll(String requestId, Cart cart, Customer customer) {
+        return results.getOrCompute(requestId, () -> delegate.tryBuyAll(cart, customer));
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer) {
+        delegate.buy(product, customer);
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer, int quantity) {
+        delegate.buy(product, customer, quantity);
+    }
+
+    @Override
+    public void buyAll(Cart cart, Customer customer) {
+        delegate.buyAll(cart, customer);
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer) {
+        return delegate.tryBuy(product, customer);
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer, int quantity) {
+        return delegate.tryBuy(product, customer, quantity);
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer) {
+        return tryBuyAll(cart, customer, item -> {
+        });
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock) {
+        return delegate.tryBuyAll(cart, customer, outOfStock);
+    }
+}
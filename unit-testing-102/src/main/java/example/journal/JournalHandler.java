@@ -0,0 +1,8 @@
+package example.journal;
+
+@FunctionalInterface
+public interface JournalHandler {
+
+    void onRecord(long sequence, JournalRecordType type, long customerId, long productId, long amount);
+
+}
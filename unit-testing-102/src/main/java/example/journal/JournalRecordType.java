@@ -0,0 +1,24 @@
+package example.journal;
+
+public enum JournalRecordType {
+    DEPOSIT,
+    WITHDRAW,
+    BUY,
+    /**
+     * Customer id is the payer; the product id field carries the payee's customer id.
+     */
+    TRANSFER;
+
+    private static final JournalRecordType[] VALUES = values();
+
+    /**
+     * Returns the type with the given code, or {@code null} if no type has it.
+     */
+    static JournalRecordType of(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+    }
+
+    int code() {
+        return ordinal();
+    }
+}
@@ -0,0 +1,66 @@
+package example.journal;
+
+import example.account.Customer;
+import example.account.CustomerLedger;
+import example.money.Money;
+import example.store.Product;
+
+import java.util.function.LongFunction;
+
+/**
+ * Rebuilds balances and stock levels by re-applying journaled deltas. Records are applied as
+ * recorded, without re-running credit rules, since they only describe changes that already
+ * succeeded.
+ */
+public class JournalReplayer implements JournalHandler {
+
+    private final CustomerLedger ledger;
+    private final LongFunction<Product> products;
+
+    public JournalReplayer(CustomerLedger ledger, LongFunction<Product> products) {
+        this.ledger = ledger;
+        this.products = products;
+    }
+
+    public long replay(TransactionJournal journal, long afterSequence) {
+        journal.replay(afterSequence, this);
+        return journal.getLastSequence();
+    }
+
+    @Override
+    public void onRecord(long sequence, JournalRecordType type, long customerId, long productId, long amount) {
+        switch (type) {
+            case DEPOSIT:
+                Customer depositor = customer(sequence, customerId);
+                depositor.setBalance(Money.add(depositor.getBalance(), amount));
+                break;
+            case WITHDRAW:
+                Customer withdrawer = customer(sequence, customerId);
+                withdrawer.setBalance(Money.subtract(withdrawer.getBalance(), amount));
+                break;
+            case BUY:
+                Product product = products.apply(productId);
+                if (product == null) {
+                    throw new IllegalStateException("Journal record " + sequence + " refers to unknown product " + productId);
+                }
+                product.setQuantity((int) (product.getQuantity() - amount));
+                break;
+            case TRANSFER:
+                Customer payer = customer(sequence, customerId);
+                Customer payee = customer(sequence, productId);
+                payer.setBalance(Money.subtract(payer.getBalance(), amount));
+                payee.setBalance(Money.add(payee.getBalance(), amount));
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record type: " + type);
+        }
+    }
+
+    private Customer customer(long sequence, long customerId) {
+        Customer customer = ledger.get(customerId);
+        if (customer == null) {
+            throw new IllegalStateException("Journal record " + sequence + " refers to unknown customer " + customerId);
+        }
+        return customer;
+    }
+}
@@ -0,0 +1,106 @@
+package example.journal;
+
+import example.account.AccountManager;
+import example.account.Customer;
+import example.account.WithdrawResult;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Records every applied deposit and successful withdrawal or transfer of the wrapped {@link AccountManager}
+ * in a {@link TransactionJournal}, keyed by {@link Customer#getId()}.
+ */
+public class JournalingAccountManager implements AccountManager {
+
+    private final AccountManager delegate;
+    private final TransactionJournal journal;
+    private final Lock mutationLock;
+
+    public JournalingAccountManager(AccountManager delegate, TransactionJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.mutationLock = journal.mutationLock();
+    }
+
+    @Override
+    public void deposit(Customer customer, long amount) {
+        mutationLock.lock();
+        try {
+            delegate.deposit(customer, amount);
+            if (amount > 0) {
+                journal.append(JournalRecordType.DEPOSIT, customer.getId(), 0, amount);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public WithdrawResult withdraw(Customer customer, long amount) {
+        mutationLock.lock();
+        try {
+            WithdrawResult result = delegate.withdraw(customer, amount);
+            if (result.isSuccess() && amount > 0) {
+                journal.append(JournalRecordType.WITHDRAW, customer.getId(), 0, amount);
+            }
+            return result;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public WithdrawResult transfer(Customer from, Customer to, long amount) {
+        mutationLock.lock();
+        try {
+            WithdrawResult result = delegate.transfer(from, to, amount);
+            if (result.isSuccess() && amount > 0) {
+                journal.append(JournalRecordType.TRANSFER, from.getId(), to.getId(), amount);
+            }
+            return result;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public void deposit(long customerId, long amount) {
+        mutationLock.lock();
+        try {
+            delegate.deposit(customerId, amount);
+            if (amount > 0) {
+                journal.append(JournalRecordType.DEPOSIT, customerId, 0, amount);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public WithdrawResult withdraw(long customerId, long amount) {
+        mutationLock.lock();
+        try {
+            WithdrawResult result = delegate.withdraw(customerId, amount);
+            if (result.isSuccess() && amount > 0) {
+                journal.append(JournalRecordType.WITHDRAW, customerId, 0, amount);
+            }
+            return result;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount) {
+        mutationLock.lock();
+        try {
+            WithdrawResult result = delegate.transfer(fromCustomerId, toCustomerId, amount);
+            if (result.isSuccess() && amount > 0) {
+                journal.append(JournalRecordType.TRANSFER, fromCustomerId, toCustomerId, amount);
+            }
+            return result;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+}
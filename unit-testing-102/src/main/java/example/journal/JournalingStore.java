@@ -0,0 +1,117 @@
+package example.journal;
+
+import example.account.Customer;
+import example.store.Cart;
+import example.store.LineItem;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+import example.store.Store;
+
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+/**
+ * Records the stock taken by every successful purchase of the wrapped {@link Store}.
+ * <p>
+ * Only the inventory side is journaled here; give the wrapped store a
+ * {@link JournalingAccountManager} so the matching payment is journaled as a withdrawal.
+ */
+public class JournalingStore implements Store {
+
+    private final Store delegate;
+    private final TransactionJournal journal;
+    private final Lock mutationLock;
+
+    public JournalingStore(Store delegate, TransactionJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.mutationLock = journal.mutationLock();
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer) {
+        mutationLock.lock();
+        try {
+            delegate.buy(product, customer);
+            journal.append(JournalRecordType.BUY, customer.getId(), product.getId(), 1);
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer, int quantity) {
+        mutationLock.lock();
+        try {
+            delegate.buy(product, customer, quantity);
+            journal.append(JournalRecordType.BUY, customer.getId(), product.getId(), quantity);
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public void buyAll(Cart cart, Customer customer) {
+        mutationLock.lock();
+        try {
+            delegate.buyAll(cart, customer);
+            appendCart(cart, customer);
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer) {
+        mutationLock.lock();
+        try {
+            PurchaseResult result = delegate.tryBuy(product, customer);
+            if (result.isSuccess()) {
+                journal.append(JournalRecordType.BUY, customer.getId(), product.getId(), 1);
+            }
+            return result;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer, int quantity) {
+        mutationLock.lock();
+        try {
+            PurchaseResult result = delegate.tryBuy(product, customer, quantity);
+            if (result.isSuccess()) {
+                journal.append(JournalRecordType.BUY, customer.getId(), product.getId(), quantity);
+            }
+            return result;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer) {
+        return tryBuyAll(cart, customer, item -> {
+        });
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock) {
+        mutationLock.lock();
+        try {
+            PurchaseResult result = delegate.tryBuyAll(cart, customer, outOfStock);
+            if (result.isSuccess()) {
+                appendCart(cart, customer);
+            }
+            return result;
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    private void appendCart(Cart cart, Customer customer) {
+        for (LineItem item : cart.getItems()) {
+            journal.append(JournalRecordType.BUY, customer.getId(), item.getProduct().getId(), item.getQuantity());
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package example.journal;
+
+import example.account.AccountState;
+import example.account.Customer;
+import example.account.CustomerLedger;
+import example.store.Product;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Periodic compact binary snapshots of customer and product state, tied to a
+ * {@link TransactionJournal} position so a restore only replays the journal tail.
+ * <p>
+ * Capturing copies the state while {@link TransactionJournal#checkpoint(Runnable)} holds mutations
+ * back; encoding and writing the file happen afterwards on the snapshot thread.
+ * <p>
+ * Once a snapshot is durable, the journal segments that every retained snapshot already covers
+ * are deleted, so neither the journal nor its recovery time grows with the total history.
+ */
+public class SnapshotStore implements Closeable {
+    private static final int MAGIC = 0x534e4150;
+    private static final int VERSION = 3;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+    private static final int RETAINED_SNAPSHOTS = 2;
+
+    private final Path directory;
+    private final TransactionJournal journal;
+    private final CustomerLedger ledger;
+    private final Supplier<? extends Collection<Product>> products;
+    private ScheduledExecutorService scheduler;
+
+    public SnapshotStore(Path directory, TransactionJournal journal, CustomerLedger ledger,
+                         Supplier<? extends Collection<Product>> products) {
+        this.directory = directory;
+        this.journal = journal;
+        this.ledger = ledger;
+        this.products = products;
+    }
+
+    /**
+     * Writes a snapshot every {@code periodMillis} on a background thread.
+     */
+    public synchronized void start(long periodMillis) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Snapshots already scheduled");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (UncheckedIOException e) {
+                // the next run retries; the previous snapshot plus journal is still a valid restore point
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Captures and writes a snapshot now, returning the file written. The journal is synced up to
+     * the snapshot's sequence and the file is forced to disk before it gets its final name, so a
+     * snapshot that survives a crash never runs ahead of the journal. Journal segments older than
+     * the oldest retained snapshot are then discarded.
+     */
+    public synchronized Path snapshot() {
+        List<Customer> customers = new ArrayList<>();
+        List<Product> productCopies = new ArrayList<>();
+        long sequence = journal.checkpoint(() -> {
+            ledger.forEach(customer -> customers.add(copy(customer)));
+            for (Product product : products.get()) {
+                productCopies.add(copy(product));
+            }
+        });
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+            Path temp = directory.resolve(target.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                write(out, sequence, customers, productCopies);
+                out.flush();
+                channel.force(true);
+            }
+            journal.sync();
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+            prune();
+            discardJournal();
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write snapshot", e);
+        }
+    }
+
+    /**
+     * Loads the latest snapshot into {@code ledger} and {@code products}, then replays the journal
+     * records written after it. Returns the last journal sequence applied.
+     */
+    public static long restore(Path directory, TransactionJournal journal, CustomerLedger ledger,
+                               Map<Long, Product> products) throws IOException {
+        long sequence = 0;
+        Path latest = latest(directory);
+        if (latest != null) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(latest)))) {
+                sequence = read(in, ledger, products);
+            }
+        }
+        return new JournalReplayer(ledger, products::get).replay(journal, sequence);
+    }
+
+    @Override
+    public void close() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, long sequence, List<Customer> customers, List<Product> products)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sequence);
+        out.writeInt(customers.size());
+        for (Customer customer : customers) {
+            out.writeLong(customer.getId());
+            writeName(out, customer.getName());
+            out.writeLong(customer.getBalance());
+            out.writeByte((customer.isCreditAllowed() ? 1 : 0) | (customer.isVip() ? 2 : 0));
+            out.writeLong(customer.getMaxCredit());
+        }
+        out.writeInt(products.size());
+        for (Product product : products) {
+            out.writeLong(product.getId());
+            writeName(out, product.getName());
+            out.writeLong(product.getPrice());
+            out.writeInt(product.getQuantity());
+        }
+    }
+
+    private static long read(DataInputStream in, CustomerLedger ledger, Map<Long, Product> products)
+            throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a snapshot file");
+        }
+        long sequence = in.readLong();
+        int customerCount = in.readInt();
+        for (int i = 0; i < customerCount; i++) {
+            Customer customer = new Customer();
+            customer.setId(in.readLong());
+            customer.setName(readName(in));
+            customer.setBalance(in.readLong());
+            int flags = in.readByte();
+            customer.setCreditAllowed((flags & 1) != 0);
+            customer.setVip((flags & 2) != 0);
+            customer.setMaxCredit(in.readLong());
+            ledger.register(customer);
+        }
+        int productCount = in.readInt();
+        for (int i = 0; i < productCount; i++) {
+            long id = in.readLong();
+            String name = readName(in);
+            Product product = new Product(name, in.readLong(), in.readInt());
+            product.setId(id);
+            products.put(id, product);
+        }
+        return sequence;
+    }
+
+    private static void writeName(DataOutputStream out, String name) throws IOException {
+        out.writeBoolean(name != null);
+        if (name != null) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static String readName(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Customer copy(Customer customer) {
+        AccountState state = customer.readState();
+        Customer copy = new Customer();
+        copy.setId(customer.getId());
+        copy.setName(customer.getName());
+        copy.setBalance(state.getBalance());
+        copy.setCreditTerms(state.isCreditAllowed(), state.isVip(), state.getMaxCredit());
+        return copy;
+    }
+
+    private static Product copy(Product product) {
+        Product copy = new Product(product.getName(), product.getPrice(), product.getQuantity());
+        copy.setId(product.getId());
+        return copy;
+    }
+
+    private static Path latest(Path directory) throws IOException {
+        List<Path> snapshots = list(directory);
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // some platforms cannot open a directory; the rename is then as durable as they make it
+        }
+    }
+
+    private void discardJournal() {
+        try {
+            List<Path> snapshots = list(directory);
+            if (!snapshots.isEmpty()) {
+                journal.discardThrough(sequenceOf(snapshots.get(0)));
+            }
+        } catch (IOException e) {
+            // the segments stay until a later snapshot manages to delete them
+        }
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = list(directory);
+        for (int i = 0; i < snapshots.size() - RETAINED_SNAPSHOTS; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                snapshots.add(path);
+            }
+        }
+        snapshots.sort(null);
+        return snapshots;
+    }
+}
@@ -0,0 +1,347 @@
+package example.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of fixed-size binary records written into a memory-mapped file.
+ * <p>
+ * Appending is a plain memory copy into the mapping; nothing is flushed per record. A background
+ * flusher forces the dirty part of the mapping to disk every flush interval, or as soon as
+ * {@code groupCommitSize} records are pending, so a whole group of transactions shares one
+ * {@code msync}. Call {@link #sync()} when a caller needs its records on disk before continuing.
+ * <p>
+ * The journal is split into segment files of {@code recordsPerChunk} records each, named after the
+ * journal file plus the sequence of their first record. Once a durable snapshot covers a segment,
+ * {@link #discardThrough(long)} deletes it, so reopening only scans the segments written since.
+ * A journal must always be reopened with the same {@code recordsPerChunk}.
+ * <p>
+ * Record layout ({@value #RECORD_SIZE} bytes): sequence, type, CRC-32, customer id, product id,
+ * amount, padding. Records are padded to 64 bytes so none of them crosses a page or sector
+ * boundary. Even so, the writeback of a mapping gives no ordering guarantee between a record's
+ * fields, so recovery only accepts a record whose sequence follows the previous one, whose type is
+ * known and whose checksum over all the other fields matches; the first record failing any of
+ * these is treated as the end of the journal.
+ * <p>
+ * Writers that change state and then journal the change hold {@link #mutationLock()} across both
+ * steps, which lets {@link #checkpoint(Runnable)} observe state that matches a journal position
+ * exactly.
+ */
+public class TransactionJournal implements Closeable {
+    static final int RECORD_SIZE = 64;
+    private static final int DEFAULT_RECORDS_PER_CHUNK = 1 << 20;
+    private static final int DEFAULT_GROUP_COMMIT_SIZE = 1024;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int TYPE_OFFSET = 8;
+    private static final int CHECKSUM_OFFSET = 12;
+    private static final int CUSTOMER_OFFSET = 16;
+    private static final int PRODUCT_OFFSET = 24;
+    private static final int AMOUNT_OFFSET = 32;
+    private static final int CHECKSUMMED_SIZE = 40;
+
+    private final Path file;
+    private final int recordsPerChunk;
+    private final int groupCommitSize;
+    private final long flushIntervalNanos;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private final Thread flusher;
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer checksummed = ByteBuffer.allocate(CHECKSUMMED_SIZE);
+
+    private long lastSequence;
+    private int firstChunk;
+    private boolean segmentCreated;
+    private volatile long appendedSequence;
+    private volatile long syncedSequence;
+    private volatile boolean closed;
+
+    public TransactionJournal(Path file) throws IOException {
+        this(file, DEFAULT_RECORDS_PER_CHUNK, DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public TransactionJournal(Path file, int recordsPerChunk, int groupCommitSize, long flushIntervalMillis)
+            throws IOException {
+        if (recordsPerChunk <= 0 || groupCommitSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Journal sizes and intervals must be positive");
+        }
+        this.recordsPerChunk = recordsPerChunk;
+        this.groupCommitSize = groupCommitSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.file = file.toAbsolutePath();
+        recover();
+        this.flusher = new Thread(this::flushLoop, "journal-flusher-" + file.getFileName());
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public synchronized long append(JournalRecordType type, long customerId, long productId, long amount) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        long sequence = lastSequence + 1;
+        MappedByteBuffer chunk = chunkFor(sequence);
+        int offset = offsetOf(sequence);
+        chunk.putInt(offset + TYPE_OFFSET, type.code());
+        chunk.putLong(offset + CUSTOMER_OFFSET, customerId);
+        chunk.putLong(offset + PRODUCT_OFFSET, productId);
+        chunk.putLong(offset + AMOUNT_OFFSET, amount);
+        chunk.putInt(offset + CHECKSUM_OFFSET, checksum(sequence, type.code(), customerId, productId, amount));
+        chunk.putLong(offset + SEQUENCE_OFFSET, sequence);
+        lastSequence = sequence;
+        appendedSequence = sequence;
+        if (sequence - syncedSequence >= groupCommitSize) {
+            LockSupport.unpark(flusher);
+        }
+        return sequence;
+    }
+
+    public long getLastSequence() {
+        return appendedSequence;
+    }
+
+    /**
+     * Shared lock to hold while applying a change and appending its record.
+     */
+    public Lock mutationLock() {
+        return checkpointLock.readLock();
+    }
+
+    /**
+     * Runs {@code capture} while no mutation is between applying and journaling its change, and
+     * returns the sequence of the last record the captured state includes.
+     */
+    public long checkpoint(Runnable capture) {
+        checkpointLock.writeLock().lock();
+        try {
+            capture.run();
+            return appendedSequence;
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces every record appended so far to disk.
+     */
+    public void sync() {
+        long target = appendedSequence;
+        if (target <= syncedSequence) {
+            return;
+        }
+        List<MappedByteBuffer> dirty;
+        boolean created;
+        synchronized (this) {
+            int from = Math.max(chunkIndex(syncedSequence + 1) - firstChunk, 0);
+            dirty = new ArrayList<>(chunks.subList(from, chunkIndex(target) - firstChunk + 1));
+            created = segmentCreated;
+            segmentCreated = false;
+        }
+        for (MappedByteBuffer chunk : dirty) {
+            chunk.force();
+        }
+        if (created) {
+            forceDirectory();
+        }
+        synchronized (this) {
+            if (target > syncedSequence) {
+                syncedSequence = target;
+            }
+        }
+    }
+
+    /**
+     * Feeds every record with a sequence greater than {@code afterSequence} to the handler, in order.
+     */
+    public void replay(long afterSequence, JournalHandler handler) {
+        long last = appendedSequence;
+        for (long sequence = Math.max(afterSequence, 0) + 1; sequence <= last; sequence++) {
+            MappedByteBuffer chunk;
+            synchronized (this) {
+                int index = chunkIndex(sequence) - firstChunk;
+                if (index < 0) {
+                    throw new IllegalStateException("Journal record " + sequence + " has been discarded");
+                }
+                chunk = chunks.get(index);
+            }
+            int offset = offsetOf(sequence);
+            handler.onRecord(sequence,
+                    JournalRecordType.of(chunk.getInt(offset + TYPE_OFFSET)),
+                    chunk.getLong(offset + CUSTOMER_OFFSET),
+                    chunk.getLong(offset + PRODUCT_OFFSET),
+                    chunk.getLong(offset + AMOUNT_OFFSET));
+        }
+    }
+
+    /**
+     * Deletes the segments whose records all have a sequence of at most {@code sequence}, which must
+     * be covered by a durable snapshot. The segment holding the last record is always kept, so
+     * sequences continue where they left off after a reopen.
+     *
+     * @throws IllegalStateException if a later {@link #replay} asks for a deleted record
+     */
+    public void discardThrough(long sequence) throws IOException {
+        List<Path> discarded = new ArrayList<>();
+        synchronized (this) {
+            if (lastSequence == 0) {
+                return;
+            }
+            int keepFrom = chunkIndex(Math.min(sequence + 1, lastSequence));
+            while (firstChunk < keepFrom) {
+                chunks.remove(0);
+                discarded.add(segment(file, firstSequenceOf(firstChunk)));
+                firstChunk++;
+            }
+        }
+        for (Path segment : discarded) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        synchronized (this) {
+            closed = true;
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+    }
+
+    /**
+     * The segment file of {@code journal} whose first record has sequence {@code firstSequence}.
+     */
+    static Path segment(Path journal, long firstSequence) {
+        return journal.resolveSibling(String.format("%s.%020d", journal.getFileName(), firstSequence));
+    }
+
+    private void recover() throws IOException {
+        List<Long> starts = segmentStarts();
+        for (int i = 0; i < starts.size(); i++) {
+            long start = starts.get(i);
+            if ((start - 1) % recordsPerChunk != 0 || i > 0 && start != starts.get(i - 1) + recordsPerChunk) {
+                throw new IOException("Journal segment " + segment(file, start)
+                        + " does not fit segments of " + recordsPerChunk + " records");
+            }
+        }
+        long sequence = 0;
+        long end = 0;
+        if (!starts.isEmpty()) {
+            firstChunk = chunkIndex(starts.get(0));
+            sequence = starts.get(0) - 1;
+            end = starts.get(starts.size() - 1) - 1 + recordsPerChunk;
+        }
+        while (sequence < end && isValid(sequence + 1)) {
+            sequence++;
+        }
+        lastSequence = sequence;
+        appendedSequence = sequence;
+        syncedSequence = sequence;
+    }
+
+    private boolean isValid(long sequence) {
+        MappedByteBuffer chunk = chunkFor(sequence);
+        int offset = offsetOf(sequence);
+        if (chunk.getLong(offset + SEQUENCE_OFFSET) != sequence) {
+            return false;
+        }
+        int type = chunk.getInt(offset + TYPE_OFFSET);
+        if (JournalRecordType.of(type) == null) {
+            return false;
+        }
+        int expected = checksum(sequence, type,
+                chunk.getLong(offset + CUSTOMER_OFFSET),
+                chunk.getLong(offset + PRODUCT_OFFSET),
+                chunk.getLong(offset + AMOUNT_OFFSET));
+        return chunk.getInt(offset + CHECKSUM_OFFSET) == expected;
+    }
+
+    private int checksum(long sequence, int type, long customerId, long productId, long amount) {
+        checksummed.clear();
+        checksummed.putLong(sequence).putInt(type).putLong(customerId).putLong(productId).putLong(amount);
+        crc.reset();
+        crc.update(checksummed.array(), 0, checksummed.position());
+        return (int) crc.getValue();
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            sync();
+        }
+    }
+
+    private List<Long> segmentStarts() throws IOException {
+        List<Long> starts = new ArrayList<>();
+        String prefix = file.getFileName() + ".";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(file.getParent(), prefix + "*")) {
+            for (Path path : stream) {
+                String suffix = path.getFileName().toString().substring(prefix.length());
+                if (suffix.length() == 20 && suffix.chars().allMatch(Character::isDigit)) {
+                    starts.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    private MappedByteBuffer chunkFor(long sequence) {
+        int index = chunkIndex(sequence) - firstChunk;
+        while (chunks.size() <= index) {
+            Path segment = segment(file, firstSequenceOf(firstChunk + chunks.size()));
+            try (FileChannel channel = FileChannel.open(segment,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerChunk * RECORD_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map journal segment " + segment, e);
+            }
+            segmentCreated = true;
+        }
+        return chunks.get(index);
+    }
+
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // some platforms cannot open a directory; new segments are then as durable as they make it
+        }
+    }
+
+    private long firstSequenceOf(int chunk) {
+        return (long) chunk * recordsPerChunk + 1;
+    }
+
+    private int chunkIndex(long sequence) {
+        return (int) ((sequence - 1) / recordsPerChunk);
+    }
+
+    private int offsetOf(long sequence) {
+        return (int) ((sequence - 1) % recordsPerChunk) * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,99 @@
+package example.metrics;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.WithdrawResult;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts deposits and withdraw outcomes and records their latency in nanoseconds.
+ * <p>
+ * Metrics: {@code account.deposit}, {@code account.withdraw.<outcome>},
+ * {@code account.transfer.<outcome>}, {@code account.deposit.latency},
+ * {@code account.withdraw.latency}, {@code account.transfer.latency}, and
+ * {@code account.contended.updates} when the delegate is an {@link AccountManagerImpl}.
+ */
+public class MeteredAccountManager implements AccountManager {
+
+    private final AccountManager delegate;
+    private final LongAdder deposits;
+    private final LongAdder[] withdrawals;
+    private final LongAdder[] transfers;
+    private final LatencyHistogram depositLatency;
+    private final LatencyHistogram withdrawLatency;
+    private final LatencyHistogram transferLatency;
+
+    public MeteredAccountManager(AccountManager delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.deposits = registry.counter("account.deposit");
+        WithdrawResult[] results = WithdrawResult.values();
+        this.withdrawals = new LongAdder[results.length];
+        this.transfers = new LongAdder[results.length];
+        for (WithdrawResult result : results) {
+            String outcome = result.name().toLowerCase(Locale.ROOT);
+            withdrawals[result.ordinal()] = registry.counter("account.withdraw." + outcome);
+            transfers[result.ordinal()] = registry.counter("account.transfer." + outcome);
+        }
+        this.depositLatency = registry.histogram("account.deposit.latency");
+        this.withdrawLatency = registry.histogram("account.withdraw.latency");
+        this.transferLatency = registry.histogram("account.transfer.latency");
+        if (delegate instanceof AccountManagerImpl) {
+            registry.gauge("account.contended.updates", ((AccountManagerImpl) delegate)::getContendedUpdates);
+        }
+    }
+
+    @Override
+    public void deposit(Customer customer, long amount) {
+        long start = System.nanoTime();
+        delegate.deposit(customer, amount);
+        depositLatency.record(System.nanoTime() - start);
+        deposits.increment();
+    }
+
+    @Override
+    public WithdrawResult withdraw(Customer customer, long amount) {
+        long start = System.nanoTime();
+        WithdrawResult result = delegate.withdraw(customer, amount);
+        withdrawLatency.record(System.nanoTime() - start);
+        withdrawals[result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public void deposit(long customerId, long amount) {
+        long start = System.nanoTime();
+        delegate.deposit(customerId, amount);
+        depositLatency.record(System.nanoTime() - start);
+        deposits.increment();
+    }
+
+    @Override
+    public WithdrawResult withdraw(long customerId, long amount) {
+        long start = System.nanoTime();
+        WithdrawResult result = delegate.withdraw(customerId, amount);
+        withdrawLatency.record(System.nanoTime() - start);
+        withdrawals[result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public WithdrawResult transfer(Customer from, Customer to, long amount) {
+        long start = System.nanoTime();
+        WithdrawResult result = delegate.transfer(from, to, amount);
+        transferLatency.record(System.nanoTime() - start);
+        transfers[result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount) {
+        long start = System.nanoTime();
+        WithdrawResult result = delegate.transfer(fromCustomerId, toCustomerId, amount);
+        transferLatency.record(System.nanoTime() - start);
+        transfers[result.ordinal()].increment();
+        return result;
+    }
+}
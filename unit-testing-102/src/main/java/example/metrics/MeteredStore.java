@@ -0,0 +1,92 @@
+package example.metrics;
+
+import example.account.Customer;
+import example.store.Cart;
+import example.store.LineItem;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+import example.store.Store;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Counts purchase outcomes and records purchase latency in nanoseconds.
+ * <p>
+ * Metrics: {@code store.purchase.<outcome>} (so {@code store.purchase.out_of_stock} gives the
+ * out-of-stock rate) and {@code store.buy.latency}.
+ */
+public class MeteredStore implements Store {
+
+    private final Store delegate;
+    private final LongAdder[] purchases;
+    private final LatencyHistogram buyLatency;
+
+    public MeteredStore(Store delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        PurchaseResult[] results = PurchaseResult.values();
+        this.purchases = new LongAdder[results.length];
+        for (PurchaseResult result : results) {
+            purchases[result.ordinal()] = registry.counter("store.purchase." + result.name().toLowerCase(Locale.ROOT));
+        }
+        this.buyLatency = registry.histogram("store.buy.latency");
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer) {
+        PurchaseResult result = tryBuy(product, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer, int quantity) {
+        PurchaseResult result = tryBuy(product, customer, quantity);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buyAll(Cart cart, Customer customer) {
+        PurchaseResult result = tryBuyAll(cart, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer) {
+        long start = System.nanoTime();
+        PurchaseResult result = delegate.tryBuy(product, customer);
+        buyLatency.record(System.nanoTime() - start);
+        purchases[result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer, int quantity) {
+        long start = System.nanoTime();
+        PurchaseResult result = delegate.tryBuy(product, customer, quantity);
+        buyLatency.record(System.nanoTime() - start);
+        purchases[result.ordinal()].increment();
+        return result;
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer) {
+        return tryBuyAll(cart, customer, item -> {
+        });
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock) {
+        long start = System.nanoTime();
+        PurchaseResult result = delegate.tryBuyAll(cart, customer, outOfStock);
+        buyLatency.record(System.nanoTime() - start);
+        purchases[result.ordinal()].increment();
+        return result;
+    }
+}
@@ -0,0 +1,8 @@
+package example.metrics;
+
+@FunctionalInterface
+public interface MetricsExporter {
+
+    void export(MetricsSnapshot snapshot);
+
+}
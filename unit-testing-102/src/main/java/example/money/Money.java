@@ -0,0 +1,64 @@
+package example.money;
+
+import java.math.BigDecimal;
+
+/**
+ * Arithmetic for amounts of money held as a {@code long} count of minor units (cents at the
+ * default {@link #SCALE} of 2). Balances, prices and amounts throughout the account and store code
+ * use this representation: it does not allocate, and every operation here fails with
+ * {@link ArithmeticException} instead of silently wrapping around.
+ * <p>
+ * {@link BigDecimal} is only used at the edges, for {@link #format(long)} and {@link #parse(String)}.
+ * <p>
+ * Amounts used to be unitless integers. They kept their numeric values when this representation
+ * was introduced, so they now mean a hundredth of what they did: a balance of {@code 1000} is
+ * 10.00, and so is the default standard credit limit.
+ */
+public final class Money {
+    public static final int SCALE = 2;
+    public static final long MINOR_UNITS_PER_MAJOR = 100;
+
+    private Money() {
+    }
+
+    public static long ofMajor(long major) {
+        return Math.multiplyExact(major, MINOR_UNITS_PER_MAJOR);
+    }
+
+    /**
+     * Combines {@code major} and {@code minor} units, taking the sign from {@code major}:
+     * {@code of(-12, 34)} is -12.34. Amounts between -1 and 0 have no negative major part, so for
+     * them {@code minor} carries the sign instead: {@code of(0, -34)} is -0.34.
+     */
+    public static long of(long major, int minor) {
+        if (minor <= -MINOR_UNITS_PER_MAJOR || minor >= MINOR_UNITS_PER_MAJOR) {
+            long bound = MINOR_UNITS_PER_MAJOR - 1;
+            throw new IllegalArgumentException("Minor units must be between -" + bound + " and " + bound);
+        }
+        if (minor < 0 && major != 0) {
+            throw new IllegalArgumentException("Minor units may only be negative when major units are zero");
+        }
+        long majorUnits = ofMajor(major);
+        return major < 0 ? Math.subtractExact(majorUnits, minor) : Math.addExact(majorUnits, minor);
+    }
+
+    public static long add(long amount, long other) {
+        return Math.addExact(amount, other);
+    }
+
+    public static long subtract(long amount, long other) {
+        return Math.subtractExact(amount, other);
+    }
+
+    public static long multiply(long amount, long quantity) {
+        return Math.multiplyExact(amount, quantity);
+    }
+
+    public static String format(long amount) {
+        return BigDecimal.valueOf(amount, SCALE).toPlainString();
+    }
+
+    public static long parse(String text) {
+        return new BigDecimal(text).setScale(SCALE).unscaledValue().longValueExact();
+    }
+}
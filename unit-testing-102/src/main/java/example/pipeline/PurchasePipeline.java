@@ -0,0 +1,272 @@
+package example.pipeline;
+
+import example.account.AccountManager;
+import example.account.Customer;
+import example.store.PurchaseResult;
+import example.store.StockItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Staged purchase processor: intake, stock reservation, payment and commit, each on its own
+ * thread(s) and connected by bounded {@link RingBuffer}s.
+ * <p>
+ * Payment runs on {@code paymentShards} threads; a customer always lands on the same shard, so
+ * its purchases are settled in submission order. Each payment thread drains up to
+ * {@code batchSize} orders and settles all orders of one customer in that batch with a single
+ * withdrawal of their total. If that combined withdrawal is declined it falls back to settling
+ * them one by one, so the outcome is the same as sequential {@code StoreImpl.buy} calls.
+ * <p>
+ * An order whose reservation or payment throws completes exceptionally with that exception, after
+ * any stock reserved for it has been released; the stage threads carry on with the next order.
+ * <p>
+ * When the intake ring is full {@link #submit(StockItem, Customer)} parks the caller until there is
+ * room, instead of queueing without bound. Submitters share a read lock that {@link #close()} takes
+ * exclusively to stop intake, so every order accepted before close has been offered and is
+ * processed, and none can be offered after it.
+ */
+public class PurchasePipeline implements AutoCloseable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AccountManager accountManager;
+    private final int batchSize;
+    private final RingBuffer<Order> intake;
+    private final List<RingBuffer<Order>> payments;
+    private final RingBuffer<Order> commits;
+    private final Thread reservationThread;
+    private final List<Thread> paymentThreads = new ArrayList<>();
+    private final Thread commitThread;
+    private final ReadWriteLock intakeLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+    private volatile boolean reservationDone;
+    private volatile boolean paymentDone;
+
+    public PurchasePipeline(AccountManager accountManager, int capacity, int paymentShards, int batchSize) {
+        if (paymentShards <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Shards and batch size must be positive");
+        }
+        this.accountManager = accountManager;
+        this.batchSize = batchSize;
+        this.intake = new RingBuffer<>(capacity);
+        this.payments = new ArrayList<>(paymentShards);
+        for (int i = 0; i < paymentShards; i++) {
+            payments.add(new RingBuffer<>(capacity));
+        }
+        this.commits = new RingBuffer<>(capacity);
+
+        this.reservationThread = start("purchase-reservation", this::reserveLoop);
+        for (int i = 0; i < paymentShards; i++) {
+            RingBuffer<Order> shard = payments.get(i);
+            paymentThreads.add(start("purchase-payment-" + i, () -> paymentLoop(shard)));
+        }
+        this.commitThread = start("purchase-commit", this::commitLoop);
+    }
+
+    public CompletableFuture<PurchaseResult> submit(StockItem product, Customer customer) {
+        Order order = new Order(product, customer);
+        Lock lock = intakeLock.readLock();
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Pipeline is closed");
+            }
+            put(intake, order);
+        } finally {
+            lock.unlock();
+        }
+        return order.future;
+    }
+
+    /**
+     * Stops intake, waits until every submitted purchase has completed and stops the stage threads.
+     */
+    @Override
+    public void close() {
+        Lock lock = intakeLock.writeLock();
+        lock.lock();
+        try {
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = join(reservationThread);
+        reservationDone = true;
+        for (Thread thread : paymentThreads) {
+            interrupted |= join(thread);
+        }
+        paymentDone = true;
+        interrupted |= join(commitThread);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for {@code thread} even if interrupted, since the stages must drain in order; returns
+     * whether an interrupt was swallowed.
+     */
+    private static boolean join(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                return interrupted;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+    }
+
+    private void reserveLoop() {
+        while (running || !intake.isEmpty()) {
+            Order order = intake.poll();
+            if (order == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            boolean reserved;
+            try {
+                reserved = order.product.reserve(1);
+            } catch (RuntimeException e) {
+                order.future.completeExceptionally(e);
+                continue;
+            }
+            if (!reserved) {
+                order.result = PurchaseResult.OUT_OF_STOCK;
+                put(commits, order);
+            } else {
+                put(payments.get(shardOf(order.customer)), order);
+            }
+        }
+    }
+
+    private void paymentLoop(RingBuffer<Order> shard) {
+        Order[] batch = new Order[batchSize];
+        boolean[] settled = new boolean[batchSize];
+        while (!reservationDone || !shard.isEmpty()) {
+            int size = 0;
+            Order order;
+            while (size < batchSize && (order = shard.poll()) != null) {
+                batch[size++] = order;
+            }
+            if (size == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            settle(batch, settled, size);
+            for (int i = 0; i < size; i++) {
+                put(commits, batch[i]);
+                batch[i] = null;
+                settled[i] = false;
+            }
+        }
+    }
+
+    private void settle(Order[] batch, boolean[] settled, int size) {
+        for (int i = 0; i < size; i++) {
+            if (settled[i]) {
+                continue;
+            }
+            Customer customer = batch[i].customer;
+            long total = 0;
+            boolean overflow = false;
+            for (int j = i; j < size; j++) {
+                if (!settled[j] && batch[j].customer == customer) {
+                    long price = batch[j].product.getPrice();
+                    overflow |= total > Long.MAX_VALUE - price;
+                    total += price;
+                }
+            }
+            boolean combined;
+            RuntimeException combinedFailure = null;
+            try {
+                combined = !overflow && accountManager.withdraw(customer, total).isSuccess();
+            } catch (RuntimeException e) {
+                combined = false;
+                combinedFailure = e;
+            }
+            for (int j = i; j < size; j++) {
+                if (!settled[j] && batch[j].customer == customer) {
+                    if (combined) {
+                        batch[j].result = PurchaseResult.SUCCESS;
+                    } else if (combinedFailure != null) {
+                        // the combined withdrawal may or may not have been applied, so none is retried
+                        batch[j].failure = combinedFailure;
+                    } else {
+                        settleOne(batch[j]);
+                    }
+                    settled[j] = true;
+                }
+            }
+        }
+    }
+
+    private void settleOne(Order order) {
+        try {
+            order.result = PurchaseResult.of(accountManager.withdraw(order.customer, order.product.getPrice()));
+        } catch (RuntimeException e) {
+            order.failure = e;
+        }
+    }
+
+    private void commitLoop() {
+        while (!paymentDone || !commits.isEmpty()) {
+            Order order = commits.poll();
+            if (order == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                if (order.result != PurchaseResult.SUCCESS && order.result != PurchaseResult.OUT_OF_STOCK) {
+                    order.product.release(1);
+                }
+            } catch (RuntimeException e) {
+                if (order.failure == null) {
+                    order.failure = e;
+                }
+            }
+            if (order.failure != null) {
+                order.future.completeExceptionally(order.failure);
+            } else {
+                order.future.complete(order.result);
+            }
+        }
+    }
+
+    private static void put(RingBuffer<Order> ring, Order order) {
+        while (!ring.offer(order)) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private int shardOf(Customer customer) {
+        return (System.identityHashCode(customer) & Integer.MAX_VALUE) % payments.size();
+    }
+
+    private static Thread start(String name, Runnable loop) {
+        Thread thread = new Thread(loop, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static final class Order {
+        final StockItem product;
+        final Customer customer;
+        final CompletableFuture<PurchaseResult> future = new CompletableFuture<>();
+        PurchaseResult result;
+        RuntimeException failure;
+
+        Order(StockItem product, Customer customer) {
+            this.product = product;
+            this.customer = customer;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package example.store;
+
+import example.account.Customer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking facade over a {@link Store}: every purchase runs on the executor and completes a
+ * {@link CompletableFuture} with its {@link PurchaseResult}.
+ * <p>
+ * By default each purchase gets a virtual thread when the JDK provides them (21+), so a slow
+ * {@link example.account.AccountManager} parks cheap threads instead of exhausting a pool. On older
+ * JDKs it falls back to a fixed pool of {@value #PLATFORM_THREADS_PER_CORE} daemon platform threads
+ * per core; purchases beyond that queue up rather than each starting a thread. Pass an executor to
+ * size it differently.
+ */
+public class AsyncStore implements AutoCloseable {
+    private static final int PLATFORM_THREADS_PER_CORE = 4;
+
+    private final Store store;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+
+    public AsyncStore(Store store) {
+        this(store, newDefaultExecutor(), true);
+    }
+
+    public AsyncStore(Store store, Executor executor) {
+        this(store, executor, false);
+    }
+
+    private AsyncStore(Store store, Executor executor, boolean ownsExecutor) {
+        this.store = store;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    public CompletableFuture<PurchaseResult> buy(StockItem product, Customer customer) {
+        return CompletableFuture.supplyAsync(() -> store.tryBuy(product, customer), executor);
+    }
+
+    public CompletableFuture<PurchaseResult> buyAll(Cart cart, Customer customer) {
+        return CompletableFuture.supplyAsync(() -> store.tryBuyAll(cart, customer), executor);
+    }
+
+    /**
+     * Stops accepting purchases and waits for in-flight ones when the executor was created here.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            ExecutorService service = (ExecutorService) executor;
+            service.shutdown();
+            try {
+                service.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static ExecutorService newDefaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Runtime.getRuntime().availableProcessors() * PLATFORM_THREADS_PER_CORE;
+            return Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "async-store");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
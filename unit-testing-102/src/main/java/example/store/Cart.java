@@ -0,0 +1,49 @@
+package example.store;
+
+import example.money.Money;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Cart {
+    private final List<LineItem> items = new ArrayList<>();
+
+    /**
+     * Adds {@code quantity} units of {@code product}, merging them into its existing line.
+     *
+     * @throws IllegalArgumentException if {@code quantity} is not positive
+     * @throws ArithmeticException if the merged line quantity does not fit in an {@code int}; the
+     *                             cart is left unchanged
+     */
+    public Cart add(StockItem product, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        for (int i = 0; i < items.size(); i++) {
+            LineItem item = items.get(i);
+            if (item.getProduct().equals(product)) {
+                items.set(i, new LineItem(product, Math.addExact(item.getQuantity(), quantity)));
+                return this;
+            }
+        }
+        items.add(new LineItem(product, quantity));
+        return this;
+    }
+
+    public List<LineItem> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (LineItem item : items) {
+            total = Money.add(total, Money.multiply(item.getProduct().getPrice(), item.getQuantity()));
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,19 @@
+package example.store;
+
+public class LineItem {
+    private final StockItem product;
+    private final int quantity;
+
+    public LineItem(StockItem product, int quantity) {
+        this.product = product;
+        this.quantity = quantity;
+    }
+
+    public StockItem getProduct() {
+        return product;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
@@ -1,16 +1,30 @@
 package example.store;
 
-public class Product {
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+public class Product implements StockItem {
+    private static final AtomicIntegerFieldUpdater<Product> QUANTITY =
+            AtomicIntegerFieldUpdater.newUpdater(Product.class, "quantity");
+
+    private long id;
     private String name;
-    private int price;
-    private int quantity;
+    private long price;
+    private volatile int quantity;
 
-    public Product(String name, int price, int quantity) {
+    public Product(String name, long price, int quantity) {
         this.name = name;
         this.price = price;
         this.quantity = quantity;
     }
 
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
@@ -19,11 +33,11 @@ public class Product {
         this.name = name;
     }
 
-    public int getPrice() {
+    public long getPrice() {
         return price;
     }
 
-    public void setPrice(int price) {
+    public void setPrice(long price) {
         this.price = price;
     }
 
@@ -34,4 +48,27 @@ public class Product {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+
+    @Override
+    public boolean reserve(int units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+        int current;
+        do {
+            current = quantity;
+            if (current < units) {
+                return false;
+            }
+        } while (!QUANTITY.compareAndSet(this, current, current - units));
+        return true;
+    }
+
+    @Override
+    public void release(int units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+        QUANTITY.getAndAdd(this, units);
+    }
 }
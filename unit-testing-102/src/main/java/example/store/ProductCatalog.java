@@ -0,0 +1,182 @@
+package example.store;
+
+import example.money.Money;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Column store for large catalogs: prices and quantities live in parallel primitive arrays indexed
+ * by SKU, so stock and price scans walk contiguous memory instead of one {@link Product} object per
+ * SKU.
+ * <p>
+ * {@link #product(int)} returns a flyweight {@link StockItem} that holds nothing but its SKU; its
+ * getters and reservations read and write the columns directly, so it can be sold through any
+ * {@link Store} without a {@link Product} being materialized. A view's id is its SKU.
+ * <p>
+ * The capacity is fixed when the catalog is created so that the quantity column never has to be
+ * swapped out from under a concurrent reservation.
+ */
+public class ProductCatalog {
+    private final String[] names;
+    private final long[] prices;
+    private final AtomicIntegerArray quantities;
+    private volatile int size;
+
+    public ProductCatalog(int capacity) {
+        this.names = new String[capacity];
+        this.prices = new long[capacity];
+        this.quantities = new AtomicIntegerArray(capacity);
+    }
+
+    /**
+     * Adds a product and returns its SKU.
+     */
+    public synchronized int add(String name, long price, int quantity) {
+        if (size == prices.length) {
+            throw new IllegalStateException("Catalog is full");
+        }
+        int sku = size;
+        names[sku] = name;
+        prices[sku] = price;
+        quantities.set(sku, quantity);
+        size = sku + 1;
+        return sku;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public StockItem product(int sku) {
+        if (sku < 0 || sku >= size()) {
+            throw new IndexOutOfBoundsException("Unknown SKU: " + sku);
+        }
+        return new View(sku);
+    }
+
+    public List<StockItem> products() {
+        int count = size();
+        return new AbstractList<StockItem>() {
+            @Override
+            public StockItem get(int index) {
+                return product(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    public long getPrice(int sku) {
+        return prices[sku];
+    }
+
+    public int getQuantity(int sku) {
+        return quantities.get(sku);
+    }
+
+    public long totalQuantity() {
+        int count = size();
+        long total = 0;
+        for (int sku = 0; sku < count; sku++) {
+            total += quantities.get(sku);
+        }
+        return total;
+    }
+
+    public long inventoryValue() {
+        int count = size();
+        long total = 0;
+        for (int sku = 0; sku < count; sku++) {
+            int quantity = quantities.get(sku);
+            if (quantity > 0) {
+                total = Money.add(total, Money.multiply(prices[sku], quantity));
+            }
+        }
+        return total;
+    }
+
+    public int countOutOfStock() {
+        int count = size();
+        int outOfStock = 0;
+        for (int sku = 0; sku < count; sku++) {
+            if (quantities.get(sku) <= 0) {
+                outOfStock++;
+            }
+        }
+        return outOfStock;
+    }
+
+    boolean reserve(int sku, int units) {
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+        int current;
+        do {
+            current = quantities.get(sku);
+            if (current < units) {
+                return false;
+            }
+        } while (!quantities.compareAndSet(sku, current, current - units));
+        return true;
+    }
+
+    private final class View implements StockItem {
+        private final int sku;
+
+        View(int sku) {
+            this.sku = sku;
+        }
+
+        @Override
+        public long getId() {
+            return sku;
+        }
+
+        @Override
+        public String getName() {
+            return names[sku];
+        }
+
+        @Override
+        public long getPrice() {
+            return prices[sku];
+        }
+
+        @Override
+        public int getQuantity() {
+            return quantities.get(sku);
+        }
+
+        @Override
+        public boolean reserve(int units) {
+            return ProductCatalog.this.reserve(sku, units);
+        }
+
+        @Override
+        public void release(int units) {
+            if (units <= 0) {
+                throw new IllegalArgumentException("Units must be positive");
+            }
+            quantities.getAndAdd(sku, units);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof View && ((View) other).sku == sku && ((View) other).catalog() == catalog();
+        }
+
+        @Override
+        public int hashCode() {
+            return sku;
+        }
+
+        private ProductCatalog catalog() {
+            return ProductCatalog.this;
+        }
+    }
+}
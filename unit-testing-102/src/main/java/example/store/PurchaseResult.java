@@ -0,0 +1,41 @@
+package example.store;
+
+import example.account.WithdrawResult;
+
+public enum PurchaseResult {
+    SUCCESS("success"),
+    OUT_OF_STOCK("Product out of stock"),
+    INSUFFICIENT_ACCOUNT_BALANCE("Payment failure: insufficient account balance"),
+    MAXIMUM_CREDIT_EXCEEDED("Payment failure: maximum credit exceeded"),
+    VELOCITY_LIMIT_EXCEEDED("Payment failure: withdrawal rate limit exceeded"),
+    THROTTLED("Purchase rejected: too many requests");
+
+    private final String message;
+
+    PurchaseResult(String message) {
+        this.message = message;
+    }
+
+    public static PurchaseResult of(WithdrawResult withdrawResult) {
+        switch (withdrawResult) {
+            case SUCCESS:
+                return SUCCESS;
+            case INSUFFICIENT_ACCOUNT_BALANCE:
+                return INSUFFICIENT_ACCOUNT_BALANCE;
+            case MAXIMUM_CREDIT_EXCEEDED:
+                return MAXIMUM_CREDIT_EXCEEDED;
+            case VELOCITY_LIMIT_EXCEEDED:
+                return VELOCITY_LIMIT_EXCEEDED;
+            default:
+                throw new IllegalArgumentException("Unknown withdraw result: " + withdrawResult);
+        }
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
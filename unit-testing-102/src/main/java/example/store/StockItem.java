@@ -0,0 +1,31 @@
+package example.store;
+
+/**
+ * What a {@link Store} needs from something it sells: identity, price and a stock count that can be
+ * reserved and released atomically. {@link Product} holds these in its own fields;
+ * {@link ProductCatalog#product(int)} returns cursors that read them from the catalog's columns.
+ */
+public interface StockItem {
+    long getId();
+
+    String getName();
+
+    long getPrice();
+
+    int getQuantity();
+
+    /**
+     * Atomically takes {@code units} out of stock. The reservation is final unless it is handed back
+     * with {@link #release(int)}, e.g. when payment fails.
+     *
+     * @throws IllegalArgumentException if {@code units} is not positive
+     */
+    boolean reserve(int units);
+
+    /**
+     * Puts {@code units} back into stock.
+     *
+     * @throws IllegalArgumentException if {@code units} is not positive
+     */
+    void release(int units);
+}
@@ -3,6 +3,32 @@ package example.store;
 
 import example.account.Customer;
 
+import java.util.function.Consumer;
+
 public interface Store {
-    void buy(Product product, Customer customer);
+    void buy(StockItem product, Customer customer);
+
+    void buy(StockItem product, Customer customer, int quantity);
+
+    void buyAll(Cart cart, Customer customer);
+
+    PurchaseResult tryBuy(StockItem product, Customer customer);
+
+    /**
+     * Buys {@code quantity} units with a single stock reservation and a single payment of
+     * {@code price * quantity}; if payment fails or throws, the reservation is released.
+     *
+     * @throws IllegalArgumentException if {@code quantity} is not positive
+     * @throws ArithmeticException if the total price does not fit in a {@code long}
+     */
+    PurchaseResult tryBuy(StockItem product, Customer customer, int quantity);
+
+    PurchaseResult tryBuyAll(Cart cart, Customer customer);
+
+    /**
+     * Same as {@link #tryBuyAll(Cart, Customer)}, and when the result is
+     * {@link PurchaseResult#OUT_OF_STOCK}, first passes the line item whose stock could not be
+     * reserved to {@code outOfStock}.
+     */
+    PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock);
 }
@@ -2,6 +2,11 @@ package example.store;
 
 import example.account.AccountManager;
 import example.account.Customer;
+import example.account.WithdrawResult;
+import example.money.Money;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public class StoreImpl implements Store {
 
@@ -12,15 +17,95 @@ public class StoreImpl implements Store {
     }
 
     @Override
-    public void buy(Product product, Customer customer) {
-        if (product.getQuantity() <= 0) {
-            throw new RuntimeException("Product out of stock");
+    public void buy(StockItem product, Customer customer) {
+        PurchaseResult result = tryBuy(product, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buy(StockItem product, Customer customer, int quantity) {
+        PurchaseResult result = tryBuy(product, customer, quantity);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public void buyAll(Cart cart, Customer customer) {
+        PurchaseResult result = tryBuyAll(cart, customer);
+        if (!result.isSuccess()) {
+            throw new RuntimeException(result.getMessage());
+        }
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer) {
+        return tryBuy(product, customer, 1);
+    }
+
+    @Override
+    public PurchaseResult tryBuy(StockItem product, Customer customer, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
         }
+        long total = Money.multiply(product.getPrice(), quantity);
+        if (!product.reserve(quantity)) {
+            return PurchaseResult.OUT_OF_STOCK;
+        }
+
+        WithdrawResult status;
+        try {
+            status = accountManager.withdraw(customer, total);
+        } catch (RuntimeException e) {
+            product.release(quantity);
+            throw e;
+        }
+        if (!status.isSuccess()) {
+            product.release(quantity);
+            return PurchaseResult.of(status);
+        }
+        return PurchaseResult.SUCCESS;
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer) {
+        return tryBuyAll(cart, customer, item -> {
+        });
+    }
+
+    @Override
+    public PurchaseResult tryBuyAll(Cart cart, Customer customer, Consumer<LineItem> outOfStock) {
+        List<LineItem> items = cart.getItems();
+        long total = cart.getTotal();
+        for (int i = 0; i < items.size(); i++) {
+            LineItem item = items.get(i);
+            if (!item.getProduct().reserve(item.getQuantity())) {
+                release(items, i);
+                outOfStock.accept(item);
+                return PurchaseResult.OUT_OF_STOCK;
+            }
+        }
+
+        WithdrawResult status;
+        try {
+            status = accountManager.withdraw(customer, total);
+        } catch (RuntimeException e) {
+            release(items, items.size());
+            throw e;
+        }
+        if (!status.isSuccess()) {
+            release(items, items.size());
+            return PurchaseResult.of(status);
+        }
+        return PurchaseResult.SUCCESS;
+    }
 
-        String status = accountManager.withdraw(customer, product.getPrice());
-        if (!status.equals("success")) {
-            throw new RuntimeException("Payment failure: " + status);
+    private static void release(List<LineItem> items, int count) {
+        for (int i = 0; i < count; i++) {
+            LineItem item = items.get(i);
+            item.getProduct().release(item.getQuantity());
         }
-        product.setQuantity(product.getQuantity() - 1);
     }
 }
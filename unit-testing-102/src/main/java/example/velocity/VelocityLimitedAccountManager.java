@@ -0,0 +1,63 @@
+package example.velocity;
+
+import example.account.AccountManager;
+import example.account.Customer;
+import example.account.WithdrawResult;
+
+/**
+ * Rejects withdrawals and outgoing transfers of customers over their {@link VelocityLimiter} rate
+ * with {@link WithdrawResult#VELOCITY_LIMIT_EXCEEDED} before the wrapped {@link AccountManager} or
+ * the balance is touched. Deposits are not limited.
+ */
+public class VelocityLimitedAccountManager implements AccountManager {
+
+    private final AccountManager delegate;
+    private final VelocityLimiter limiter;
+
+    public VelocityLimitedAccountManager(AccountManager delegate, VelocityLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void deposit(Customer customer, long amount) {
+        delegate.deposit(customer, amount);
+    }
+
+    @Override
+    public WithdrawResult withdraw(Customer customer, long amount) {
+        if (!limiter.tryAcquire(customer.getId())) {
+            return WithdrawResult.VELOCITY_LIMIT_EXCEEDED;
+        }
+        return delegate.withdraw(customer, amount);
+    }
+
+    @Override
+    public void deposit(long customerId, long amount) {
+        delegate.deposit(customerId, amount);
+    }
+
+    @Override
+    public WithdrawResult withdraw(long customerId, long amount) {
+        if (!limiter.tryAcquire(customerId)) {
+            return WithdrawResult.VELOCITY_LIMIT_EXCEEDED;
+        }
+        return delegate.withdraw(customerId, amount);
+    }
+
+    @Override
+    public WithdrawResult transfer(Customer from, Customer to, long amount) {
+        if (!limiter.tryAcquire(from.getId())) {
+            return WithdrawResult.VELOCITY_LIMIT_EXCEEDED;
+        }
+        return delegate.transfer(from, to, amount);
+    }
+
+    @Override
+    public WithdrawResult transfer(long fromCustomerId, long toCustomerId, long amount) {
+        if (!limiter.tryAcquire(fromCustomerId)) {
+            return WithdrawResult.VELOCITY_LIMIT_EXCEEDED;
+        }
+        return delegate.transfer(fromCustomerId, toCustomerId, amount);
+    }
+}
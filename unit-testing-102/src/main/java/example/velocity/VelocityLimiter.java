@@ -0,0 +1,157 @@
+package example.velocity;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-customer sliding-window rate limit.
+ * <p>
+ * Each customer has two counters, for the current and the previous fixed window; the rate over the
+ * sliding window ending now is estimated as the current count plus the previous count weighted by
+ * how much of the previous window still overlaps. Counters live in lock-striped open-addressing
+ * tables of primitive arrays (no object per customer), and customers idle for two windows are
+ * dropped whenever a stripe is resized.
+ */
+public class VelocityLimiter {
+    private static final int STRIPES = 64;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int maxPerWindow;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public VelocityLimiter(int maxPerWindow, long window, TimeUnit unit) {
+        this(maxPerWindow, window, unit, System::nanoTime);
+    }
+
+    VelocityLimiter(int maxPerWindow, long window, TimeUnit unit, LongSupplier nanoClock) {
+        if (maxPerWindow <= 0 || window <= 0) {
+            throw new IllegalArgumentException("Limit and window must be positive");
+        }
+        this.maxPerWindow = maxPerWindow;
+        this.windowNanos = unit.toNanos(window);
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Counts one operation for {@code customerId} and returns {@code true}, or returns
+     * {@code false} without counting it if the customer is already at the limit.
+     */
+    public boolean tryAcquire(long customerId) {
+        long now = nanoClock.getAsLong();
+        long window = Math.floorDiv(now, windowNanos);
+        long elapsed = Math.floorMod(now, windowNanos);
+        long hash = mix(customerId);
+        Stripe stripe = stripes[(int) hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            return stripe.tryAcquire(customerId, (int) (hash >>> 32), window, elapsed);
+        }
+    }
+
+    /**
+     * Number of customers currently tracked.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private static long mix(long customerId) {
+        long hash = customerId * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private final class Stripe {
+        private long[] keys;
+        private long[] windows;
+        private int[] current;
+        private int[] previous;
+        private int size;
+
+        Stripe() {
+            allocate(INITIAL_STRIPE_CAPACITY);
+        }
+
+        boolean tryAcquire(long customerId, int hash, long window, long elapsed) {
+            int slot = find(customerId, hash);
+            if (windows[slot] == EMPTY) {
+                if (size + 1 > keys.length / 2) {
+                    rehash(window);
+                    slot = find(customerId, hash);
+                }
+                keys[slot] = customerId;
+                windows[slot] = window;
+                current[slot] = 0;
+                previous[slot] = 0;
+                size++;
+            } else if (windows[slot] != window) {
+                previous[slot] = windows[slot] == window - 1 ? current[slot] : 0;
+                current[slot] = 0;
+                windows[slot] = window;
+            }
+            double weightedPrevious = previous[slot] * ((double) (windowNanos - elapsed) / windowNanos);
+            if (weightedPrevious + current[slot] >= maxPerWindow) {
+                return false;
+            }
+            current[slot]++;
+            return true;
+        }
+
+        private int find(long customerId, int hash) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (windows[slot] != EMPTY && keys[slot] != customerId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void rehash(long window) {
+            long[] oldKeys = keys;
+            long[] oldWindows = windows;
+            int[] oldCurrent = current;
+            int[] oldPrevious = previous;
+            int live = 0;
+            for (long oldWindow : oldWindows) {
+                if (oldWindow != EMPTY && oldWindow >= window - 1) {
+                    live++;
+                }
+            }
+            int capacity = INITIAL_STRIPE_CAPACITY;
+            while (live + 1 > capacity / 4) {
+                capacity <<= 1;
+            }
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldWindows[i] != EMPTY && oldWindows[i] >= window - 1) {
+                    int slot = find(oldKeys[i], (int) (mix(oldKeys[i]) >>> 32));
+                    keys[slot] = oldKeys[i];
+                    windows[slot] = oldWindows[i];
+                    current[slot] = oldCurrent[i];
+                    previous[slot] = oldPrevious[i];
+                    size++;
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            windows = new long[capacity];
+            Arrays.fill(windows, EMPTY);
+            current = new int[capacity];
+            previous = new int[capacity];
+            size = 0;
+        }
+    }
+}
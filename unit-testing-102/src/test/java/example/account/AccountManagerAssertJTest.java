@@ -16,10 +16,11 @@ public class AccountManagerAssertJTest {
         customer.setCreditAllowed(true);
         customer.setVip(false);
         // Act
-        String result = accountManager.withdraw(customer, 1200);
+        WithdrawResult result = accountManager.withdraw(customer, 1200);
         // Assert
         assertThat(customer.getBalance()).isEqualTo(100).isNotNegative();
-        assertThat(result).isEqualTo("maximum credit exceeded").startsWith("maximum").endsWith("exceeded");
+        assertThat(result).isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(result.getMessage()).startsWith("maximum").endsWith("exceeded");
     }
 
     @Test
@@ -29,10 +30,11 @@ public class AccountManagerAssertJTest {
         customer.setCreditAllowed(true);
         customer.setVip(true);
         // Act
-        String result = accountManager.withdraw(customer, 1200);
+        WithdrawResult result = accountManager.withdraw(customer, 1200);
         // Assert
         assertThat(customer.getBalance()).isEqualTo(-1100).isNegative();
-        assertThat(result).isEqualTo("success").contains("success");
+        assertThat(result).isEqualTo(WithdrawResult.SUCCESS);
+        assertThat(result.getMessage()).contains("success");
     }
 
     @Test
@@ -41,10 +43,11 @@ public class AccountManagerAssertJTest {
         customer.setBalance(500);
         customer.setCreditAllowed(false);
         // Act
-        String result = accountManager.withdraw(customer, 500);
+        WithdrawResult result = accountManager.withdraw(customer, 500);
         // Assert
         assertThat(customer.getBalance()).isZero();
-        assertThat(result).isEqualTo("success").doesNotContain("fail");
+        assertThat(result).isEqualTo(WithdrawResult.SUCCESS);
+        assertThat(result.getMessage()).doesNotContain("fail");
     }
 
     @Test
@@ -53,10 +56,11 @@ public class AccountManagerAssertJTest {
         customer.setBalance(500);
         customer.setCreditAllowed(true);
         // Act
-        String result = accountManager.withdraw(customer, -50);
+        WithdrawResult result = accountManager.withdraw(customer, -50);
         // Assert
         assertThat(customer.getBalance()).isEqualTo(500).isPositive();
-        assertThat(result).isEqualTo("success").containsOnlyOnce("success");
+        assertThat(result).isEqualTo(WithdrawResult.SUCCESS);
+        assertThat(result.getMessage()).containsOnlyOnce("success");
     }
 
     @Test
@@ -64,10 +68,11 @@ public class AccountManagerAssertJTest {
         // Arrange
         customer.setBalance(300);
         // Act
-        String result = accountManager.withdraw(customer, 0);
+        WithdrawResult result = accountManager.withdraw(customer, 0);
         // Assert
         assertThat(customer.getBalance()).isEqualTo(300).isGreaterThan(0);
-        assertThat(result).isEqualTo("success").contains("success");
+        assertThat(result).isEqualTo(WithdrawResult.SUCCESS);
+        assertThat(result.getMessage()).contains("success");
     }
 
     @Test
@@ -97,10 +102,11 @@ public class AccountManagerAssertJTest {
         customer.setCreditAllowed(true);
         customer.setVip(true);
         // Act
-        String result = accountManager.withdraw(customer, 900);
+        WithdrawResult result = accountManager.withdraw(customer, 900);
         // Assert
         assertThat(customer.getBalance()).isEqualTo(-900).isLessThan(0);
-        assertThat(result).isEqualTo("success").contains("success");
+        assertThat(result).isEqualTo(WithdrawResult.SUCCESS);
+        assertThat(result.getMessage()).contains("success");
     }
 
     @Test
@@ -24,14 +24,14 @@ public class AccountManagerMockitoTest {
         customer.setBalance(100);
         customer.setCreditAllowed(true);
         customer.setVip(false);
-        when(accountManager.withdraw(customer, 1200)).thenReturn("maximum credit exceeded");
+        when(accountManager.withdraw(customer, 1200)).thenReturn(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
 
         // Act
-        String result = accountManager.withdraw(customer, 1200);
+        WithdrawResult result = accountManager.withdraw(customer, 1200);
 
         // Assert
         verify(accountManager).withdraw(customer, 1200);
-        assertEquals("maximum credit exceeded", result);
+        assertEquals(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED, result);
         assertEquals(100, customer.getBalance());
     }
 
@@ -41,15 +41,15 @@ public class AccountManagerMockitoTest {
         customer.setBalance(100);
         customer.setCreditAllowed(true);
         customer.setVip(true);
-        when(accountManager.withdraw(customer, 1200)).thenReturn("success");
+        when(accountManager.withdraw(customer, 1200)).thenReturn(WithdrawResult.SUCCESS);
         customer.setBalance(-1100);
 
         // Act
-        String result = accountManager.withdraw(customer, 1200);
+        WithdrawResult result = accountManager.withdraw(customer, 1200);
 
         // Assert
         verify(accountManager).withdraw(customer, 1200);
-        assertEquals("success", result);
+        assertEquals(WithdrawResult.SUCCESS, result);
         assertEquals(-1100, customer.getBalance());
     }
 
@@ -58,15 +58,15 @@ public class AccountManagerMockitoTest {
         // Arrange
         customer.setBalance(500);
         customer.setCreditAllowed(false);
-        when(accountManager.withdraw(customer, 500)).thenReturn("success");
+        when(accountManager.withdraw(customer, 500)).thenReturn(WithdrawResult.SUCCESS);
         customer.setBalance(0); // Simulate balance update
 
         // Act
-        String result = accountManager.withdraw(customer, 500);
+        WithdrawResult result = accountManager.withdraw(customer, 500);
 
         // Assert
         verify(accountManager).withdraw(customer, 500);
-        assertEquals("success", result);
+        assertEquals(WithdrawResult.SUCCESS, result);
         assertEquals(0, customer.getBalance());
     }
 
@@ -74,14 +74,14 @@ public class AccountManagerMockitoTest {
     void givenNegativeAmount_WhenWithdraw_ThenDoNothingAndReturnSuccess() {
         // Arrange
         customer.setBalance(500);
-        when(accountManager.withdraw(customer, -50)).thenReturn("success");
+        when(accountManager.withdraw(customer, -50)).thenReturn(WithdrawResult.SUCCESS);
 
         // Act
-        String result = accountManager.withdraw(customer, -50);
+        WithdrawResult result = accountManager.withdraw(customer, -50);
 
         // Assert
         verify(accountManager).withdraw(customer, -50);
-        assertEquals("success", result);
+        assertEquals(WithdrawResult.SUCCESS, result);
         assertEquals(500, customer.getBalance());
     }
 
@@ -89,14 +89,14 @@ public class AccountManagerMockitoTest {
     void givenZeroAmount_WhenWithdraw_ThenDoNothingAndReturnSuccess() {
         // Arrange
         customer.setBalance(300);
-        when(accountManager.withdraw(customer, 0)).thenReturn("success");
+        when(accountManager.withdraw(customer, 0)).thenReturn(WithdrawResult.SUCCESS);
 
         // Act
-        String result = accountManager.withdraw(customer, 0);
+        WithdrawResult result = accountManager.withdraw(customer, 0);
 
         // Assert
         verify(accountManager).withdraw(customer, 0);
-        assertEquals("success", result);
+        assertEquals(WithdrawResult.SUCCESS, result);
         assertEquals(300, customer.getBalance());
     }
 
@@ -132,15 +132,15 @@ public class AccountManagerMockitoTest {
         customer.setBalance(0);
         customer.setCreditAllowed(true);
         customer.setVip(true);
-        when(accountManager.withdraw(customer, 900)).thenReturn("success");
+        when(accountManager.withdraw(customer, 900)).thenReturn(WithdrawResult.SUCCESS);
         customer.setBalance(-900); // Simulate balance update
 
         // Act
-        String result = accountManager.withdraw(customer, 900);
+        WithdrawResult result = accountManager.withdraw(customer, 900);
 
         // Assert
         verify(accountManager).withdraw(customer, 900);
-        assertEquals("success", result);
+        assertEquals(WithdrawResult.SUCCESS, result);
         assertEquals(-900, customer.getBalance());
     }
 
@@ -4,6 +4,11 @@ package example.account;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 public class AccountManagerTest {
 
 
@@ -17,11 +22,11 @@ public class AccountManagerTest {
         customer.setCreditAllowed(true);
         customer.setVip(false);
         // Act
-        String result = accountManager.withdraw(customer, 1200);
+        WithdrawResult result = accountManager.withdraw(customer, 1200);
         // Assert
-        int expectedBalance = customer.getBalance();
+        long expectedBalance = customer.getBalance();
         Assertions.assertEquals(100, expectedBalance);
-        Assertions.assertEquals("maximum credit exceeded", result);
+        Assertions.assertEquals(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED, result);
     }
 
     @Test
@@ -31,11 +36,11 @@ public class AccountManagerTest {
         customer.setCreditAllowed(true);
         customer.setVip(true);
         // Act
-        String result = accountManager.withdraw(customer, 1200);
+        WithdrawResult result = accountManager.withdraw(customer, 1200);
         // Assert
-        int expectedBalance = customer.getBalance();
+        long expectedBalance = customer.getBalance();
         Assertions.assertEquals(-1100, expectedBalance);
-        Assertions.assertEquals("success", result);
+        Assertions.assertEquals(WithdrawResult.SUCCESS, result);
     }
 
     @Test
@@ -44,11 +49,11 @@ public class AccountManagerTest {
         customer.setBalance(500);
         customer.setCreditAllowed(false);
         // Act
-        String result = accountManager.withdraw(customer, 500);
+        WithdrawResult result = accountManager.withdraw(customer, 500);
         // Assert
-        int expectedBalance = customer.getBalance();
+        long expectedBalance = customer.getBalance();
         Assertions.assertEquals(0, expectedBalance);
-        Assertions.assertEquals("success", result);
+        Assertions.assertEquals(WithdrawResult.SUCCESS, result);
     }
 
     @Test
@@ -57,11 +62,11 @@ public class AccountManagerTest {
         customer.setBalance(500);
         customer.setCreditAllowed(true);
         // Act
-        String result = accountManager.withdraw(customer, -50);
+        WithdrawResult result = accountManager.withdraw(customer, -50);
         // Assert
-        int expectedBalance = customer.getBalance();
+        long expectedBalance = customer.getBalance();
         Assertions.assertEquals(500, expectedBalance);
-        Assertions.assertEquals("success", result);
+        Assertions.assertEquals(WithdrawResult.SUCCESS, result);
     }
 
     @Test
@@ -69,11 +74,11 @@ public class AccountManagerTest {
         // Arrange
         customer.setBalance(300);
         // Act
-        String result = accountManager.withdraw(customer, 0);
+        WithdrawResult result = accountManager.withdraw(customer, 0);
         // Assert
-        int expectedBalance = customer.getBalance();
+        long expectedBalance = customer.getBalance();
         Assertions.assertEquals(300, expectedBalance);
-        Assertions.assertEquals("success", result);
+        Assertions.assertEquals(WithdrawResult.SUCCESS, result);
     }
 
     @Test
@@ -103,10 +108,10 @@ public class AccountManagerTest {
         customer.setCreditAllowed(true);
         customer.setVip(true);
         // Act
-        String result = accountManager.withdraw(customer, 900);
+        WithdrawResult result = accountManager.withdraw(customer, 900);
         // Assert
         Assertions.assertEquals(-900, customer.getBalance());
-        Assertions.assertEquals("success", result);
+        Assertions.assertEquals(WithdrawResult.SUCCESS, result);
     }
 
     @Test
@@ -121,4 +126,176 @@ public class AccountManagerTest {
         Assertions.assertEquals(-300, customer.getBalance());
     }
 
+    @Test
+    void givenConcurrentWithdrawals_WhenWithdraw_ThenNeverExceedMaxCreditOrLoseUpdates() throws InterruptedException {
+        // Arrange
+        customer.setBalance(0);
+        customer.setCreditAllowed(true);
+        customer.setVip(false);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                accountManager.withdraw(customer, 1);
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Assert
+        Assertions.assertEquals(-1000, customer.getBalance());
+    }
+
+    @Test
+    void givenConcurrentDeposits_WhenDeposit_ThenApplyEveryAmount() throws InterruptedException {
+        // Arrange
+        customer.setBalance(0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            executor.execute(() -> accountManager.deposit(customer, 5));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Assert
+        Assertions.assertEquals(10000, customer.getBalance());
+    }
+
+    @Test
+    void givenRegisteredCustomerId_WhenDepositAndWithdrawById_ThenUpdateThatCustomer() {
+        // Arrange
+        CustomerLedger ledger = new CustomerLedger();
+        AccountManager manager = new AccountManagerImpl(ledger);
+        customer.setId(11);
+        customer.setBalance(100);
+        ledger.register(customer);
+        // Act
+        manager.deposit(11, 50);
+        WithdrawResult result = manager.withdraw(11, 120);
+        // Assert
+        Assertions.assertEquals(WithdrawResult.SUCCESS, result);
+        Assertions.assertEquals(30, customer.getBalance());
+    }
+
+    @Test
+    void givenUnknownCustomerId_WhenWithdrawById_ThenThrowException() {
+        // Act & Assert
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> accountManager.withdraw(99, 10));
+        Assertions.assertEquals("Unknown customer: 99", exception.getMessage());
+    }
+
+    @Test
+    void givenBalanceBeyondIntRange_WhenDeposit_ThenKeepExactBalance() {
+        // Arrange
+        customer.setBalance(Integer.MAX_VALUE);
+        // Act
+        accountManager.deposit(customer, Integer.MAX_VALUE);
+        // Assert
+        Assertions.assertEquals(2L * Integer.MAX_VALUE, customer.getBalance());
+    }
+
+    @Test
+    void givenDepositThatWouldOverflow_WhenDeposit_ThenThrowAndKeepBalance() {
+        // Arrange
+        customer.setBalance(Long.MAX_VALUE - 10);
+        // Act & Assert
+        Assertions.assertThrows(ArithmeticException.class, () -> accountManager.deposit(customer, 11));
+        Assertions.assertEquals(Long.MAX_VALUE - 10, customer.getBalance());
+    }
+
+    @Test
+    void givenVipWithdrawalThatWouldOverflow_WhenWithdraw_ThenRejectWithoutWrapping() {
+        // Arrange
+        customer.setBalance(Long.MIN_VALUE + 10);
+        customer.setCreditAllowed(true);
+        customer.setVip(true);
+        // Act
+        WithdrawResult result = accountManager.withdraw(customer, 11);
+        // Assert
+        Assertions.assertEquals(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED, result);
+        Assertions.assertEquals(Long.MIN_VALUE + 10, customer.getBalance());
+    }
+
+    @Test
+    void givenEnoughBalance_WhenTransfer_ThenMoveAmountBetweenCustomers() {
+        // Arrange
+        Customer recipient = new Customer();
+        customer.setBalance(500);
+        recipient.setBalance(100);
+        // Act
+        WithdrawResult result = accountManager.transfer(customer, recipient, 300);
+        // Assert
+        Assertions.assertEquals(WithdrawResult.SUCCESS, result);
+        Assertions.assertEquals(200, customer.getBalance());
+        Assertions.assertEquals(400, recipient.getBalance());
+    }
+
+    @Test
+    void givenAmountExceedsMaxCreditForNonVip_WhenTransfer_ThenChangeNeitherBalance() {
+        // Arrange
+        Customer recipient = new Customer();
+        customer.setBalance(100);
+        customer.setCreditAllowed(true);
+        customer.setVip(false);
+        // Act
+        WithdrawResult result = accountManager.transfer(customer, recipient, 1200);
+        // Assert
+        Assertions.assertEquals(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED, result);
+        Assertions.assertEquals(100, customer.getBalance());
+        Assertions.assertEquals(0, recipient.getBalance());
+    }
+
+    @Test
+    void givenRecipientBalanceWouldOverflow_WhenTransfer_ThenThrowAndRestorePayer() {
+        // Arrange
+        Customer recipient = new Customer();
+        customer.setBalance(500);
+        recipient.setBalance(Long.MAX_VALUE);
+        // Act & Assert
+        Assertions.assertThrows(ArithmeticException.class, () -> accountManager.transfer(customer, recipient, 10));
+        Assertions.assertEquals(500, customer.getBalance());
+        Assertions.assertEquals(Long.MAX_VALUE, recipient.getBalance());
+    }
+
+    @Test
+    void givenSameCustomer_WhenTransfer_ThenThrowException() {
+        // Act & Assert
+        Exception exception = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> accountManager.transfer(customer, customer, 10));
+        Assertions.assertEquals("Cannot transfer to the same customer", exception.getMessage());
+    }
+
+    @Test
+    void givenCyclicConcurrentTransfers_WhenTransfer_ThenFinishAndConserveTotal() throws InterruptedException {
+        // Arrange
+        Customer[] ring = new Customer[4];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Customer();
+            ring[i].setId(i);
+            ring[i].setBalance(1000);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        // Act
+        for (int i = 0; i < 8000; i++) {
+            Customer from = ring[i % ring.length];
+            Customer to = ring[(i + 1) % ring.length];
+            executor.execute(() -> accountManager.transfer(from, to, 7));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        // Assert
+        long total = 0;
+        for (Customer member : ring) {
+            Assertions.assertTrue(member.getBalance() >= 0);
+            total += member.getBalance();
+        }
+        Assertions.assertEquals(4000, total);
+    }
 }
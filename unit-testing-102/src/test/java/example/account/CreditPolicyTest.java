@@ -0,0 +1,122 @@
+package example.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CreditPolicyTest {
+
+    Customer customer = new Customer();
+    AccountManagerImpl accountManager = new AccountManagerImpl();
+
+    @Test
+    void givenCustomerMaxCredit_WhenWithdraw_ThenUseItInsteadOfTierLimit() {
+        // Arrange
+        customer.setBalance(0);
+        customer.setCreditAllowed(true);
+        customer.setVip(false);
+        customer.setMaxCredit(5000);
+        // Act
+        WithdrawResult allowed = accountManager.withdraw(customer, 4000);
+        WithdrawResult rejected = accountManager.withdraw(customer, 1001);
+        // Assert
+        assertThat(allowed).isEqualTo(WithdrawResult.SUCCESS);
+        assertThat(rejected).isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(customer.getBalance()).isEqualTo(-4000);
+    }
+
+    @Test
+    void givenVipWithZeroMaxCredit_WhenWithdrawBelowZero_ThenReject() {
+        // Arrange
+        customer.setBalance(100);
+        customer.setCreditAllowed(true);
+        customer.setVip(true);
+        customer.setMaxCredit(0);
+        // Act
+        WithdrawResult result = accountManager.withdraw(customer, 101);
+        // Assert
+        assertThat(result).isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(customer.getBalance()).isEqualTo(100);
+    }
+
+    @Test
+    void givenTierLimits_WhenCheck_ThenApplyLimitOfCustomerTier() {
+        // Arrange
+        CreditPolicy policy = CreditPolicy.builder()
+                .tierLimit(CreditTier.STANDARD, 200)
+                .tierLimit(CreditTier.VIP, 3000)
+                .build();
+        // Act & Assert
+        assertThat(policy.check(0, 200, true, false, Customer.TIER_MAX_CREDIT)).isNull();
+        assertThat(policy.check(0, 201, true, false, Customer.TIER_MAX_CREDIT))
+                .isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(policy.check(0, 3000, true, true, Customer.TIER_MAX_CREDIT)).isNull();
+        assertThat(policy.check(0, 3001, true, true, Customer.TIER_MAX_CREDIT))
+                .isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(policy.check(0, 1, false, true, Customer.TIER_MAX_CREDIT))
+                .isEqualTo(WithdrawResult.INSUFFICIENT_ACCOUNT_BALANCE);
+    }
+
+    @Test
+    void givenWindowWrappingMidnight_WhenCheckInsideAndOutside_ThenCapLimitOnlyInside() {
+        // Arrange
+        long[] now = {TimeUnit.HOURS.toMillis(23)};
+        CreditPolicy policy = CreditPolicy.builder()
+                .window(LocalTime.of(22, 0), LocalTime.of(6, 0), 100)
+                .clock(() -> now[0])
+                .build();
+        // Act
+        WithdrawResult lateNight = policy.check(0, 500, true, true, Customer.TIER_MAX_CREDIT);
+        now[0] = TimeUnit.HOURS.toMillis(24 + 5);
+        WithdrawResult earlyMorning = policy.check(0, 500, true, true, Customer.TIER_MAX_CREDIT);
+        now[0] = TimeUnit.HOURS.toMillis(12);
+        WithdrawResult midday = policy.check(0, 500, true, true, Customer.TIER_MAX_CREDIT);
+        // Assert
+        assertThat(lateNight).isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(earlyMorning).isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(midday).isNull();
+    }
+
+    @Test
+    void givenZoneOffset_WhenCheck_ThenEvaluateWindowInLocalTime() {
+        // Arrange
+        CreditPolicy policy = CreditPolicy.builder()
+                .window(LocalTime.of(9, 0), LocalTime.of(10, 0), 0)
+                .zoneOffset(ZoneOffset.ofHours(2))
+                .clock(() -> TimeUnit.MINUTES.toMillis(7 * 60 + 30))
+                .build();
+        // Act
+        WithdrawResult result = policy.check(0, 1, true, false, Customer.TIER_MAX_CREDIT);
+        // Assert
+        assertThat(result).isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+    }
+
+    @Test
+    void givenNewPolicy_WhenSetCreditPolicy_ThenApplyToFollowingWithdrawals() {
+        // Arrange
+        customer.setBalance(0);
+        customer.setCreditAllowed(true);
+        customer.setVip(false);
+        WithdrawResult before = accountManager.withdraw(customer, 1500);
+        // Act
+        accountManager.setCreditPolicy(CreditPolicy.builder().tierLimit(CreditTier.STANDARD, 2000).build());
+        WithdrawResult after = accountManager.withdraw(customer, 1500);
+        // Assert
+        assertThat(before).isEqualTo(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+        assertThat(after).isEqualTo(WithdrawResult.SUCCESS);
+        assertThat(customer.getBalance()).isEqualTo(-1500);
+    }
+
+    @Test
+    void givenNegativeLimit_WhenBuild_ThenThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> CreditPolicy.builder().tierLimit(CreditTier.VIP, -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Credit limit must not be negative");
+    }
+}
@@ -0,0 +1,100 @@
+package example.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomerLedgerTest {
+
+    private final CustomerLedger ledger = new CustomerLedger(4);
+
+    @Test
+    void givenRegisteredCustomer_WhenGet_ThenReturnSameInstance() {
+        // Arrange
+        Customer customer = customer(42);
+        ledger.register(customer);
+
+        // Act
+        Customer found = ledger.get(42);
+
+        // Assert
+        assertSame(customer, found);
+        assertNull(ledger.get(43));
+    }
+
+    @Test
+    void givenManyCustomers_WhenRegister_ThenGrowSegmentsAndFindEveryone() {
+        // Arrange & Act
+        for (long id = 0; id < 10_000; id++) {
+            ledger.register(customer(id));
+        }
+
+        // Assert
+        assertEquals(10_000, ledger.size());
+        for (long id = 0; id < 10_000; id++) {
+            assertEquals(id, ledger.get(id).getId());
+        }
+    }
+
+    @Test
+    void givenSameIdTwice_WhenRegister_ThenReplaceAndReturnPrevious() {
+        // Arrange
+        Customer first = customer(7);
+        Customer second = customer(7);
+        ledger.register(first);
+
+        // Act
+        Customer previous = ledger.register(second);
+
+        // Assert
+        assertSame(first, previous);
+        assertSame(second, ledger.get(7));
+        assertEquals(1, ledger.size());
+    }
+
+    @Test
+    void givenRemovedCustomers_WhenGet_ThenRemainingCustomersAreStillFound() {
+        // Arrange
+        for (long id = 0; id < 1_000; id++) {
+            ledger.register(customer(id));
+        }
+
+        // Act
+        for (long id = 0; id < 1_000; id += 2) {
+            assertEquals(id, ledger.remove(id).getId());
+        }
+
+        // Assert
+        assertEquals(500, ledger.size());
+        for (long id = 0; id < 1_000; id++) {
+            if (id % 2 == 0) {
+                assertNull(ledger.get(id));
+            } else {
+                assertEquals(id, ledger.get(id).getId());
+            }
+        }
+    }
+
+    @Test
+    void givenRegisteredCustomers_WhenForEach_ThenVisitEachOnce() {
+        // Arrange
+        for (long id = 1; id <= 100; id++) {
+            ledger.register(customer(id));
+        }
+        AtomicInteger visited = new AtomicInteger();
+
+        // Act
+        ledger.forEach(customer -> visited.incrementAndGet());
+
+        // Assert
+        assertEquals(100, visited.get());
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        return customer;
+    }
+}
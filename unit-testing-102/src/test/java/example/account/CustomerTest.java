@@ -0,0 +1,116 @@
+package example.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomerTest {
+
+    private final Customer customer = new Customer();
+
+    @Test
+    void givenCustomer_WhenReadState_ThenReturnBalanceAndFlags() {
+        // Arrange
+        customer.setBalance(-300);
+        customer.setCreditTerms(true, true);
+
+        // Act
+        AccountState state = customer.readState();
+
+        // Assert
+        assertEquals(-300, state.getBalance());
+        assertTrue(state.isCreditAllowed());
+        assertTrue(state.isVip());
+    }
+
+    @Test
+    void givenConcurrentCreditTermChanges_WhenReadState_ThenNeverSeeHalfAppliedFlags() throws InterruptedException {
+        // Arrange
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            boolean flag = false;
+            while (running.get()) {
+                flag = !flag;
+                customer.setCreditTerms(flag, flag);
+            }
+        });
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                for (int read = 0; read < 200_000; read++) {
+                    AccountState state = customer.readState();
+                    if (state.isCreditAllowed() != state.isVip()) {
+                        torn.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        // Act
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        running.set(false);
+        writer.join();
+
+        // Assert
+        assertEquals(0, torn.get());
+    }
+
+    @Test
+    void givenConcurrentCreditLimitChanges_WhenReadState_ThenSeeLimitTogetherWithItsFlags() throws InterruptedException {
+        // Arrange
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            boolean flag = false;
+            while (running.get()) {
+                flag = !flag;
+                customer.setCreditTerms(flag, false, flag ? 500 : Customer.TIER_MAX_CREDIT);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            for (int read = 0; read < 200_000; read++) {
+                AccountState state = customer.readState();
+                if (state.isCreditAllowed() != (state.getMaxCredit() == 500)) {
+                    torn.incrementAndGet();
+                }
+            }
+        });
+
+        // Act
+        writer.start();
+        reader.start();
+        reader.join();
+        running.set(false);
+        writer.join();
+
+        // Assert
+        assertEquals(0, torn.get());
+    }
+
+    @Test
+    void givenRegisteredCustomer_WhenReadStateById_ThenReadThroughLedger() {
+        // Arrange
+        AccountManagerImpl accountManager = new AccountManagerImpl();
+        customer.setId(5);
+        customer.setBalance(250);
+        accountManager.getLedger().register(customer);
+
+        // Act
+        AccountState state = accountManager.readState(5);
+
+        // Assert
+        assertEquals(250, state.getBalance());
+        assertFalse(state.isCreditAllowed());
+        assertFalse(state.isVip());
+    }
+}
@@ -0,0 +1,128 @@
+package example.account;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapAccountManagerTest {
+
+    OffHeapAccountManager accountManager = new OffHeapAccountManager(200_000);
+
+    @Test
+    void givenAmountExceedsMaxCreditForNonVip_WhenWithdraw_ThenReturnMessageWithoutSubtractingFromBalance() {
+        // Arrange
+        accountManager.open(1, 100, true, false);
+        // Act
+        WithdrawResult result = accountManager.withdraw(1, 1200);
+        // Assert
+        assertEquals(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED, result);
+        assertEquals(100, accountManager.getBalance(1));
+    }
+
+    @Test
+    void givenAmountExceedsMaxCreditForVip_WhenWithdraw_ThenSubtractAmountFromBalance() {
+        // Arrange
+        accountManager.open(150_000, 100, true, true);
+        // Act
+        WithdrawResult result = accountManager.withdraw(150_000, 1200);
+        // Assert
+        assertEquals(WithdrawResult.SUCCESS, result);
+        assertEquals(-1100, accountManager.getBalance(150_000));
+    }
+
+    @Test
+    void givenNoCredit_WhenWithdrawMoreThanBalance_ThenReturnInsufficientBalance() {
+        // Arrange
+        accountManager.open(2, 100, false, false);
+        // Act
+        WithdrawResult result = accountManager.withdraw(2, 101);
+        // Assert
+        assertEquals(WithdrawResult.INSUFFICIENT_ACCOUNT_BALANCE, result);
+        assertEquals(100, accountManager.getBalance(2));
+    }
+
+    @Test
+    void givenCustomerHandle_WhenDepositAndWithdraw_ThenUpdateOffHeapRecordOnly() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setId(3);
+        customer.setBalance(500);
+        accountManager.open(customer);
+        // Act
+        accountManager.deposit(customer, 250);
+        accountManager.withdraw(customer, 50);
+        accountManager.deposit(customer, -10);
+        // Assert
+        assertEquals(700, accountManager.getBalance(3));
+        assertEquals(500, customer.getBalance());
+    }
+
+    @Test
+    void givenFlagsChanged_WhenWithdraw_ThenApplyNewFlags() {
+        // Arrange
+        accountManager.open(4, 0, false, false);
+        accountManager.setCreditAllowed(4, true);
+        // Act
+        WithdrawResult result = accountManager.withdraw(4, 900);
+        // Assert
+        assertEquals(WithdrawResult.SUCCESS, result);
+        assertTrue(accountManager.isCreditAllowed(4));
+        assertFalse(accountManager.isVip(4));
+        assertEquals(-900, accountManager.getBalance(4));
+    }
+
+    @Test
+    void givenUnopenedOrOutOfRangeId_WhenWithdraw_ThenThrowException() {
+        // Arrange
+        accountManager.open(5, 0, false, false);
+        // Act & Assert
+        Exception unopened = assertThrows(IllegalArgumentException.class, () -> accountManager.withdraw(6, 10));
+        assertEquals("Unknown customer: 6", unopened.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> accountManager.withdraw(199_999, 10));
+        assertThrows(IllegalArgumentException.class, () -> accountManager.deposit(200_000, 10));
+    }
+
+    @Test
+    void givenOpenAccounts_WhenTransferById_ThenMoveAmountUnderCreditRules() {
+        // Arrange
+        accountManager.open(3, 100, true, false);
+        accountManager.open(70_000, 0, false, false);
+        // Act
+        WithdrawResult allowed = accountManager.transfer(3, 70_000, 600);
+        WithdrawResult rejected = accountManager.transfer(3, 70_000, 600);
+        // Assert
+        assertEquals(WithdrawResult.SUCCESS, allowed);
+        assertEquals(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED, rejected);
+        assertEquals(-500, accountManager.getBalance(3));
+        assertEquals(600, accountManager.getBalance(70_000));
+    }
+
+    @Test
+    void givenAccountsOnSameStripe_WhenTransferBothWaysConcurrently_ThenConserveTotal() throws InterruptedException {
+        // Arrange
+        accountManager.open(4, 10_000, false, false);
+        accountManager.open(4 + 256, 10_000, false, false);
+        accountManager.open(5, 10_000, false, false);
+        Thread forward = new Thread(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                accountManager.transfer(4, 4 + 256, 3);
+                accountManager.transfer(4, 5, 2);
+            }
+        });
+        Thread backward = new Thread(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                accountManager.transfer(4 + 256, 4, 3);
+                accountManager.transfer(5, 4, 2);
+            }
+        });
+        // Act
+        forward.start();
+        backward.start();
+        forward.join(10_000);
+        backward.join(10_000);
+        // Assert
+        assertFalse(forward.isAlive() || backward.isAlive());
+        assertEquals(30_000, accountManager.getBalance(4) + accountManager.getBalance(4 + 256)
+                + accountManager.getBalance(5));
+    }
+}
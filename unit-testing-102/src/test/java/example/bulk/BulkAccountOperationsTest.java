@@ -0,0 +1,152 @@
+package example.bulk;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkAccountOperationsTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final AccountManager accountManager = new AccountManagerImpl();
+    private final BulkAccountOperations operations = new BulkAccountOperations(accountManager, pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void givenManyCustomers_WhenDepositAll_ThenCreditEveryCustomerAndReportTotals() {
+        // Arrange
+        List<Customer> customers = customers(100_000, 0);
+
+        // Act
+        BulkResult result = operations.depositAll(customers, 25);
+
+        // Assert
+        assertThat(result.size()).isEqualTo(100_000);
+        assertThat(result.getAppliedCount()).isEqualTo(100_000);
+        assertThat(result.getAppliedAmount()).isEqualTo(2_500_000);
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getBalance()).isEqualTo(25));
+    }
+
+    @Test
+    void givenSomeCustomersWithoutFunds_WhenWithdrawAll_ThenRecordOutcomePerCustomer() {
+        // Arrange
+        List<Customer> customers = customers(1000, 100);
+        customers.get(3).setBalance(10);
+        customers.get(700).setBalance(5);
+
+        // Act
+        BulkResult result = operations.withdrawAll(customers, 50);
+
+        // Assert
+        assertThat(result.getOutcome(0)).isSameAs(BulkOutcome.APPLIED);
+        assertThat(result.getOutcome(3)).isSameAs(BulkOutcome.INSUFFICIENT_ACCOUNT_BALANCE);
+        assertThat(result.getOutcome(700)).isSameAs(BulkOutcome.INSUFFICIENT_ACCOUNT_BALANCE);
+        assertThat(result.getCount(BulkOutcome.INSUFFICIENT_ACCOUNT_BALANCE)).isEqualTo(2);
+        assertThat(result.getRejectedCount()).isEqualTo(2);
+        assertThat(result.getAppliedAmount()).isEqualTo(998 * 50);
+        assertThat(customers.get(3).getBalance()).isEqualTo(10);
+        assertThat(customers.get(999).getBalance()).isEqualTo(50);
+    }
+
+    @Test
+    void givenDepositThatWouldOverflow_WhenDepositAll_ThenMarkFailedAndContinue() {
+        // Arrange
+        List<Customer> customers = customers(3, 0);
+        customers.get(1).setBalance(Long.MAX_VALUE);
+
+        // Act
+        BulkResult result = operations.depositAll(customers, new long[]{10, 10, 20});
+
+        // Assert
+        assertThat(result.getOutcome(1)).isSameAs(BulkOutcome.FAILED);
+        assertThat(result.getAppliedCount()).isEqualTo(2);
+        assertThat(result.getAppliedAmount()).isEqualTo(30);
+        assertThat(customers.get(2).getBalance()).isEqualTo(20);
+    }
+
+    @Test
+    void givenAppliedAmountsAboveLongRange_WhenDepositAll_ThenSaturateTotalAndKeepOutcomes() {
+        // Arrange
+        List<Customer> customers = customers(2000, 0);
+        long[] amounts = new long[2000];
+        Arrays.fill(amounts, Long.MAX_VALUE / 1000);
+
+        // Act
+        BulkResult result = operations.depositAll(customers, amounts);
+
+        // Assert
+        assertThat(result.getAppliedCount()).isEqualTo(2000);
+        assertThat(result.getAppliedAmount()).isEqualTo(Long.MAX_VALUE);
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getBalance()).isEqualTo(Long.MAX_VALUE / 1000));
+    }
+
+    @Test
+    void givenLinkedList_WhenDepositAll_ThenApplyInInputOrder() {
+        // Arrange
+        List<Customer> customers = new LinkedList<>(customers(5000, 0));
+
+        // Act
+        BulkResult result = operations.depositAll(customers, 7);
+
+        // Assert
+        assertThat(result.getAppliedCount()).isEqualTo(5000);
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getBalance()).isEqualTo(7));
+    }
+
+    @Test
+    void givenProgrammingError_WhenDepositAll_ThenPropagateInsteadOfMarkingFailed() {
+        // Arrange
+        List<Customer> customers = customers(3, 0);
+        customers.set(1, null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> operations.depositAll(customers, 10))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void givenAmountsOfWrongLength_WhenWithdrawAll_ThenThrowException() {
+        // Arrange
+        List<Customer> customers = customers(2, 0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> operations.withdrawAll(customers, new long[]{1}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expected 2 amounts but got 1");
+    }
+
+    @Test
+    void givenNoCustomers_WhenDepositAll_ThenReturnEmptyResult() {
+        // Act
+        BulkResult result = operations.depositAll(Arrays.<Customer>asList(), 10);
+
+        // Assert
+        assertThat(result.size()).isZero();
+        assertThat(result.getAppliedAmount()).isZero();
+    }
+
+    private static List<Customer> customers(int count, long balance) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Customer customer = new Customer();
+            customer.setId(i);
+            customer.setBalance(balance);
+            customers.add(customer);
+        }
+        return customers;
+    }
+}
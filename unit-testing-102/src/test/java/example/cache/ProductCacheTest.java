@@ -0,0 +1,253 @@
+package example.cache;
+
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.store.Cart;
+import example.store.Product;
+import example.store.PurchaseResult;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProductCacheTest {
+
+    private final Map<Long, Product> products = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ProductSource source = productId -> {
+        loads.incrementAndGet();
+        return products.get(productId);
+    };
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 100; id++) {
+            Product product = new Product("Product " + id, id * 10, 5);
+            product.setId(id);
+            products.put(id, product);
+        }
+        customer = new Customer();
+        customer.setBalance(10_000);
+    }
+
+    @Test
+    void givenRepeatedReads_WhenGet_ThenLoadOnceAndCountHitsAndMisses() {
+        // Arrange
+        ProductCache cache = new ProductCache(source, 64);
+
+        // Act
+        long price = cache.getPrice(7);
+        int quantity = cache.getQuantity(7);
+        cache.get(7);
+
+        // Assert
+        assertThat(price).isEqualTo(70);
+        assertThat(quantity).isEqualTo(5);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getHitRate()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void givenPurchaseThroughCachingStore_WhenGetQuantity_ThenReloadFreshStock() {
+        // Arrange
+        ProductCache cache = new ProductCache(source, 64);
+        CachingStore store = new CachingStore(new StoreImpl(new AccountManagerImpl()), cache);
+        Product product = products.get(3L);
+        cache.get(3);
+
+        // Act
+        store.buy(product, customer);
+        store.buyAll(new Cart().add(product, 2), customer);
+        int quantity = cache.getQuantity(3);
+
+        // Assert
+        assertThat(quantity).isEqualTo(2);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void givenFailedPurchase_WhenGet_ThenKeepCachedEntry() {
+        // Arrange
+        ProductCache cache = new ProductCache(source, 64);
+        CachingStore store = new CachingStore(new StoreImpl(new AccountManagerImpl()), cache);
+        Customer poorCustomer = new Customer();
+        cache.get(3);
+
+        // Act
+        store.tryBuy(products.get(3L), poorCustomer);
+        cache.get(3);
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void givenMoreProductsThanCapacity_WhenScanned_ThenBoundSizeAndKeepFrequentlyReadProducts() {
+        // Arrange
+        ProductCache cache = new ProductCache(source, 32);
+        for (long id = 1; id <= 16; id++) {
+            cache.get(id);
+            cache.get(id);
+        }
+        loads.set(0);
+
+        // Act
+        for (long id = 17; id <= 100; id++) {
+            cache.get(id);
+        }
+        for (long id = 1; id <= 16; id++) {
+            cache.get(id);
+        }
+
+        // Assert
+        assertThat(cache.size()).isLessThanOrEqualTo(32);
+        assertThat(cache.getEvictions()).isPositive();
+        assertThat(loads.get()).isEqualTo(84);
+    }
+
+    @Test
+    void givenInvalidationDuringLoad_WhenGet_ThenDoNotCacheStaleValue() {
+        // Arrange
+        ProductCache[] cache = new ProductCache[1];
+        cache[0] = new ProductCache(productId -> {
+            loads.incrementAndGet();
+            Product product = products.get(productId);
+            if (loads.get() == 1) {
+                cache[0].invalidate(productId);
+            }
+            return product;
+        }, 64);
+
+        // Act
+        cache[0].get(9);
+        cache[0].get(9);
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void givenInvalidationOfOtherProductsDuringLoad_WhenGet_ThenStillCacheLoadedValue() {
+        // Arrange
+        ProductCache[] cache = new ProductCache[1];
+        cache[0] = new ProductCache(productId -> {
+            loads.incrementAndGet();
+            for (long id = 1; id <= 100; id++) {
+                if (id != productId) {
+                    cache[0].invalidate(id);
+                }
+            }
+            return products.get(productId);
+        }, 64);
+
+        // Act
+        cache[0].get(9);
+        cache[0].get(9);
+
+        // Assert
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void givenEntryOlderThanTimeToLive_WhenGet_ThenReloadFromSource() {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        ProductCache cache = new ProductCache(source, 64, 100, TimeUnit.MILLISECONDS, now::get);
+        cache.get(4);
+        products.get(4L).setQuantity(0);
+
+        // Act
+        now.set(TimeUnit.MILLISECONDS.toNanos(99));
+        int beforeExpiry = cache.getQuantity(4);
+        now.set(TimeUnit.MILLISECONDS.toNanos(100));
+        int afterExpiry = cache.getQuantity(4);
+
+        // Assert
+        assertThat(beforeExpiry).isEqualTo(5);
+        assertThat(afterExpiry).isZero();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void givenStockSoldElsewhere_WhenBuyThroughCachingStoreIsOutOfStock_ThenReloadFreshStock() {
+        // Arrange
+        ProductCache cache = new ProductCache(source, 64);
+        CachingStore store = new CachingStore(new StoreImpl(new AccountManagerImpl()), cache);
+        Product product = products.get(3L);
+        cache.get(3);
+        product.setQuantity(0);
+
+        // Act
+        PurchaseResult result = store.tryBuy(product, customer);
+        ProductSnapshot snapshot = cache.get(3);
+
+        // Assert
+        assertThat(result).isSameAs(PurchaseResult.OUT_OF_STOCK);
+        assertThat(snapshot.isInStock()).isFalse();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void givenConcurrentMissesForSameProduct_WhenGet_ThenLoadOnceAndShareResult() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        ProductCache cache = new ProductCache(productId -> {
+            loads.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return products.get(productId);
+        }, 64);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<ProductSnapshot>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> cache.get(5)));
+        }
+        while (cache.getMisses() < 4) {
+            Thread.yield();
+        }
+        release.countDown();
+        ProductSnapshot first = results.get(0).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assert
+        for (Future<ProductSnapshot> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(first);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.get(5)).isSameAs(first);
+    }
+
+    @Test
+    void givenUnknownProduct_WhenGetPrice_ThenThrowException() {
+        // Arrange
+        ProductCache cache = new ProductCache(source, 64);
+
+        // Act & Assert
+        assertThat(cache.get(500)).isNull();
+        assertThatThrownBy(() -> cache.getPrice(500))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown product: 500");
+    }
+}
@@ -0,0 +1,201 @@
+package example.events;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.WithdrawResult;
+import example.store.Cart;
+import example.store.Product;
+import example.store.PurchaseResult;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventBusTest {
+
+    private final EventBus bus = new EventBus(1024);
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+
+    @Test
+    void givenDecoratedManagerAndStore_WhenTransact_ThenDeliverEventsInOrder() throws InterruptedException {
+        // Arrange
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(5);
+        bus.subscribe(event -> {
+            received.add(event.getType() + ":" + event.getCustomerId() + ":" + event.getAmount());
+            delivered.countDown();
+        });
+        AccountManager accountManager = new EventPublishingAccountManager(new AccountManagerImpl(), bus);
+        EventPublishingStore store = new EventPublishingStore(new StoreImpl(accountManager), bus);
+        Customer customer = new Customer();
+        customer.setId(7);
+        Product product = new Product("Lamps", 300, 0);
+
+        // Act
+        accountManager.deposit(customer, 500);
+        WithdrawResult withdrawResult = accountManager.withdraw(customer, 600);
+        PurchaseResult purchaseResult = store.tryBuy(product, customer);
+        product.setQuantity(1);
+        store.tryBuy(product, customer);
+
+        // Assert
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(withdrawResult).isSameAs(WithdrawResult.INSUFFICIENT_ACCOUNT_BALANCE);
+        assertThat(purchaseResult).isSameAs(PurchaseResult.OUT_OF_STOCK);
+        assertThat(received).containsExactly(
+                "DEPOSIT:7:500",
+                "WITHDRAW:7:600",
+                "OUT_OF_STOCK:7:300",
+                "WITHDRAW:7:300",
+                "PURCHASE:7:300");
+    }
+
+    @Test
+    void givenSeveralSubscribers_WhenPublishConcurrently_ThenEverySubscriberSeesEveryEvent() throws InterruptedException {
+        // Arrange
+        AtomicLong first = new AtomicLong();
+        AtomicLong second = new AtomicLong();
+        CountDownLatch delivered = new CountDownLatch(2 * 800);
+        bus.subscribe(event -> {
+            first.addAndGet(event.getAmount());
+            delivered.countDown();
+        });
+        bus.subscribe(event -> {
+            second.addAndGet(event.getAmount());
+            delivered.countDown();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        for (int i = 0; i < 800; i++) {
+            executor.execute(() -> {
+                while (!bus.publishDeposit(1, 5)) {
+                    Thread.yield();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.get()).isEqualTo(4000);
+        assertThat(second.get()).isEqualTo(4000);
+    }
+
+    @Test
+    void givenStalledSubscriber_WhenRingIsFull_ThenDropInsteadOfBlocking() throws InterruptedException {
+        // Arrange
+        EventBus small = new EventBus(4);
+        CountDownLatch release = new CountDownLatch(1);
+        small.subscribe(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Act
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (small.publishDeposit(1, 1)) {
+                accepted++;
+            }
+        }
+        release.countDown();
+        small.close();
+
+        // Assert
+        assertThat(accepted).isEqualTo(4);
+        assertThat(small.getDropped()).isEqualTo(6);
+    }
+
+    @Test
+    void givenCartWithOneItemOutOfStock_WhenTryBuyAll_ThenPublishOnlyForThatItem() throws InterruptedException {
+        // Arrange
+        List<Long> products = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        bus.subscribe(event -> {
+            products.add(event.getProductId());
+            delivered.countDown();
+        });
+        EventPublishingStore store = new EventPublishingStore(new StoreImpl(new AccountManagerImpl()), bus);
+        Customer customer = new Customer();
+        customer.setBalance(10_000);
+        Product lamps = new Product("Lamps", 300, 5);
+        lamps.setId(1);
+        Product tables = new Product("Tables", 900, 1);
+        tables.setId(2);
+        Product chairs = new Product("Chairs", 100, 8);
+        chairs.setId(3);
+        Cart cart = new Cart().add(lamps, 1).add(tables, 2).add(chairs, 4);
+
+        // Act
+        PurchaseResult result = store.tryBuyAll(cart, customer);
+
+        // Assert
+        assertThat(result).isSameAs(PurchaseResult.OUT_OF_STOCK);
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        bus.close();
+        assertThat(products).containsExactly(2L);
+    }
+
+    @Test
+    void givenRestockRightAfterFailedReservation_WhenTryBuyAll_ThenStillPublishForThatItem() throws InterruptedException {
+        // Arrange
+        List<Long> products = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        bus.subscribe(event -> {
+            products.add(event.getProductId());
+            delivered.countDown();
+        });
+        EventPublishingStore store = new EventPublishingStore(new StoreImpl(new AccountManagerImpl()), bus);
+        Customer customer = new Customer();
+        customer.setBalance(10_000);
+        Product lamps = new Product("Lamps", 300, 5);
+        lamps.setId(1);
+        Product tables = new Product("Tables", 900, 1) {
+            @Override
+            public boolean reserve(int units) {
+                boolean reserved = super.reserve(units);
+                setQuantity(10);
+                return reserved;
+            }
+        };
+        tables.setId(2);
+        Cart cart = new Cart().add(lamps, 1).add(tables, 2);
+
+        // Act
+        PurchaseResult result = store.tryBuyAll(cart, customer);
+
+        // Assert
+        assertThat(result).isSameAs(PurchaseResult.OUT_OF_STOCK);
+        assertThat(delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        bus.close();
+        assertThat(products).containsExactly(2L);
+    }
+
+    @Test
+    void givenCapacityNotPowerOfTwo_WhenCreate_ThenThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> new EventBus(100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Capacity must be a power of two, at least 2");
+    }
+}
@@ -0,0 +1,166 @@
+package example.flashsale;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.store.Product;
+import example.store.PurchaseResult;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class FlashSaleStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private AccountManagerImpl accountManager;
+    private FlashSaleStore store;
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        accountManager = new AccountManagerImpl();
+        store = new FlashSaleStore(new StoreImpl(accountManager), accountManager);
+        customer = new Customer();
+        customer.setBalance(100_000_000);
+        product = new Product("Phones", 100, 10_000);
+    }
+
+    @Test
+    void givenMoreBuyersThanUnits_WhenBuyConcurrently_ThenSellEveryUnitExactlyOnce() throws InterruptedException {
+        // Arrange
+        store.startFlashSale(product, 10_000, new TokenBucket(1_000_000_000, Integer.MAX_VALUE));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder sold = new LongAdder();
+        LongAdder outOfStock = new LongAdder();
+
+        // Act
+        for (int i = 0; i < 15_000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                PurchaseResult result = store.tryBuy(product, customer);
+                (result.isSuccess() ? sold : outOfStock).increment();
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(sold.sum()).isEqualTo(10_000);
+        assertThat(outOfStock.sum()).isEqualTo(5_000);
+        assertThat(customer.getBalance()).isEqualTo(100_000_000 - 10_000 * 100);
+        assertThat(product.getQuantity()).isZero();
+    }
+
+    @Test
+    void givenBurstExhausted_WhenTryBuy_ThenThrottleUntilBucketRefills() {
+        // Arrange
+        FlashSale sale = new FlashSale(product, 10, accountManager, new TokenBucket(10, 2, now::get), 4);
+
+        // Act
+        PurchaseResult first = sale.tryBuy(customer);
+        PurchaseResult second = sale.tryBuy(customer);
+        PurchaseResult third = sale.tryBuy(customer);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        PurchaseResult afterRefill = sale.tryBuy(customer);
+
+        // Assert
+        assertThat(first).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(second).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(third).isSameAs(PurchaseResult.THROTTLED);
+        assertThat(afterRefill).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(sale.getRemaining()).isEqualTo(7);
+    }
+
+    @Test
+    void givenPaymentFailure_WhenTryBuy_ThenReturnTokenToSale() {
+        // Arrange
+        FlashSale sale = store.startFlashSale(product, 5, new TokenBucket(1000, 1000, now::get));
+        Customer poorCustomer = new Customer();
+        poorCustomer.setBalance(50);
+
+        // Act
+        PurchaseResult result = store.tryBuy(product, poorCustomer);
+
+        // Assert
+        assertThat(result).isSameAs(PurchaseResult.INSUFFICIENT_ACCOUNT_BALANCE);
+        assertThat(sale.getRemaining()).isEqualTo(5);
+        assertThat(poorCustomer.getBalance()).isEqualTo(50);
+    }
+
+    @Test
+    void givenPaymentThrows_WhenTryBuy_ThenReturnTokensAndRethrow() {
+        // Arrange
+        AccountManager failing = mock(AccountManager.class);
+        when(failing.withdraw(customer, 300)).thenThrow(new IllegalStateException("Journal unavailable"));
+        FlashSale sale = new FlashSale(product, 5, failing, new TokenBucket(1000, 1000, now::get), 4);
+
+        // Act & Assert
+        assertThatThrownBy(() -> sale.tryBuy(customer, 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Journal unavailable");
+        assertThat(sale.getRemaining()).isEqualTo(5);
+    }
+
+    @Test
+    void givenRunningSale_WhenEndFlashSale_ThenReleaseUnsoldUnitsAndRouteToStore() {
+        // Arrange
+        FlashSale sale = store.startFlashSale(product, 100, new TokenBucket(1000, 1000, now::get));
+        store.tryBuy(product, customer);
+
+        // Act
+        store.endFlashSale(product);
+        PurchaseResult afterSale = store.tryBuy(product, customer);
+
+        // Assert
+        assertThat(sale.isEnded()).isTrue();
+        assertThat(sale.getRemaining()).isZero();
+        assertThat(afterSale).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(product.getQuantity()).isEqualTo(10_000 - 2);
+    }
+
+    @Test
+    void givenSaleAlreadyRunning_WhenStartFlashSale_ThenThrowAndKeepStock() {
+        // Arrange
+        store.startFlashSale(product, 100, new TokenBucket(1000, 1000, now::get));
+
+        // Act & Assert
+        assertThatThrownBy(() -> store.startFlashSale(product, 100, new TokenBucket(1000, 1000, now::get)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Flash sale already running for Phones");
+        assertThat(product.getQuantity()).isEqualTo(10_000 - 100);
+    }
+
+    @Test
+    void givenQuantitySpanningPools_WhenTryBuy_ThenClaimAcrossPoolsAndChargeOnce() {
+        // Arrange
+        FlashSale sale = new FlashSale(product, 8, accountManager, new TokenBucket(1000, 1000, now::get), 4);
+
+        // Act
+        PurchaseResult tooMany = sale.tryBuy(customer, 9);
+        PurchaseResult result = sale.tryBuy(customer, 7);
+
+        // Assert
+        assertThat(tooMany).isSameAs(PurchaseResult.OUT_OF_STOCK);
+        assertThat(result).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(sale.getRemaining()).isEqualTo(1);
+        assertThat(customer.getBalance()).isEqualTo(100_000_000 - 7 * 100);
+    }
+}
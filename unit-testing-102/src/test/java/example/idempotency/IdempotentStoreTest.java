@@ -0,0 +1,166 @@
+package example.idempotency;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.WithdrawResult;
+import example.store.Product;
+import example.store.PurchaseResult;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class IdempotentStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setBalance(1000);
+        product = new Product("Fridges", 200, 10);
+    }
+
+    @Test
+    void givenRetriedRequestId_WhenTryBuy_ThenChargeOnceAndReturnOriginalResult() {
+        // Arrange
+        IdempotentStore store = new IdempotentStore(new StoreImpl(new AccountManagerImpl()),
+                new DedupCache<>(100, 1, TimeUnit.MINUTES, now::get));
+
+        // Act
+        PurchaseResult first = store.tryBuy("order-1", product, customer);
+        PurchaseResult retry = store.tryBuy("order-1", product, customer);
+        PurchaseResult other = store.tryBuy("order-2", product, customer);
+
+        // Assert
+        assertThat(first).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(retry).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(other).isSameAs(PurchaseResult.SUCCESS);
+        assertThat(customer.getBalance()).isEqualTo(600);
+        assertThat(product.getQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    void givenDeclinedPurchase_WhenRetriedWithSameId_ThenRepeatFailureWithoutCharging() {
+        // Arrange
+        IdempotentStore store = new IdempotentStore(new StoreImpl(new AccountManagerImpl()),
+                new DedupCache<>(100, 1, TimeUnit.MINUTES, now::get));
+        customer.setBalance(100);
+        store.tryBuy("order-1", product, customer);
+        customer.setBalance(1000);
+
+        // Act & Assert
+        assertThatThrownBy(() -> store.buy("order-1", product, customer))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Payment failure: insufficient account balance");
+        assertThat(customer.getBalance()).isEqualTo(1000);
+    }
+
+    @Test
+    void givenExpiredRequestId_WhenRetried_ThenRunAgain() {
+        // Arrange
+        AccountManager delegate = mock(AccountManager.class);
+        when(delegate.withdraw(customer, 50)).thenReturn(WithdrawResult.SUCCESS);
+        IdempotentAccountManager accountManager = new IdempotentAccountManager(delegate,
+                new DedupCache<>(100, 1, TimeUnit.SECONDS, now::get));
+
+        // Act
+        accountManager.withdraw("w-1", customer, 50);
+        accountManager.withdraw("w-1", customer, 50);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        accountManager.withdraw("w-1", customer, 50);
+
+        // Assert
+        verify(delegate, times(2)).withdraw(customer, 50);
+    }
+
+    @Test
+    void givenFullCache_WhenNewRequestsArrive_ThenStayBounded() {
+        // Arrange
+        DedupCache<WithdrawResult> cache = new DedupCache<>(32, 1, TimeUnit.MINUTES, now::get);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            cache.getOrCompute("request-" + i, () -> WithdrawResult.SUCCESS);
+        }
+
+        // Assert
+        assertThat(cache.size()).isLessThanOrEqualTo(32);
+    }
+
+    @Test
+    void givenInFlightRequest_WhenEvictionPressureAndTtlPass_ThenRetryWaitsInsteadOfRerunning() throws Exception {
+        // Arrange
+        DedupCache<WithdrawResult> cache = new DedupCache<>(1, 1, TimeUnit.SECONDS, now::get);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<WithdrawResult> first = executor.submit(() -> cache.getOrCompute("w-1", () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return WithdrawResult.SUCCESS;
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        for (int i = 0; i < 1000; i++) {
+            cache.getOrCompute("other-" + i, () -> WithdrawResult.SUCCESS);
+        }
+        // back within the time-to-live, so a retry that only runs after completion still hits
+        now.set(TimeUnit.MILLISECONDS.toNanos(500));
+        Future<WithdrawResult> retry = executor.submit(() -> cache.getOrCompute("w-1", () -> {
+            runs.incrementAndGet();
+            return WithdrawResult.INSUFFICIENT_ACCOUNT_BALANCE;
+        }));
+        release.countDown();
+
+        // Assert
+        assertThat(first.get(10, TimeUnit.SECONDS)).isSameAs(WithdrawResult.SUCCESS);
+        assertThat(retry.get(10, TimeUnit.SECONDS)).isSameAs(WithdrawResult.SUCCESS);
+        assertThat(runs.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void givenConcurrentRetries_WhenWithdraw_ThenExecuteOnce() throws InterruptedException {
+        // Arrange
+        IdempotentAccountManager accountManager = new IdempotentAccountManager(new AccountManagerImpl(),
+                1000, 1, TimeUnit.MINUTES);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> accountManager.withdraw("w-1", customer, 100));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Assert
+        assertThat(customer.getBalance()).isEqualTo(900);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
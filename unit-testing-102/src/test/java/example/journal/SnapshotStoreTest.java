@@ -0,0 +1,172 @@
+package example.journal;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.CustomerLedger;
+import example.store.Product;
+import example.store.Store;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void givenSnapshotAndLaterTransactions_WhenRestore_ThenLoadSnapshotAndReplayOnlyTail() throws IOException {
+        // Arrange
+        Path journalFile = dir.resolve("journal.bin");
+        Path snapshots = dir.resolve("snapshots");
+        Customer customer = new Customer();
+        customer.setId(1);
+        customer.setName("Ada");
+        customer.setBalance(1000);
+        customer.setCreditAllowed(true);
+        customer.setVip(true);
+        Product product = new Product("Phones", 50, 5);
+        product.setId(9);
+        long snapshotSequence;
+        try (TransactionJournal journal = new TransactionJournal(journalFile)) {
+            AccountManagerImpl accounts = new AccountManagerImpl();
+            accounts.getLedger().register(customer);
+            AccountManager accountManager = new JournalingAccountManager(accounts, journal);
+            Store store = new JournalingStore(new StoreImpl(accountManager), journal);
+            SnapshotStore snapshotStore = new SnapshotStore(snapshots, journal, accounts.getLedger(),
+                    () -> Collections.singletonList(product));
+
+            store.buy(product, customer);
+            accountManager.deposit(customer, 100);
+            snapshotStore.snapshot();
+            snapshotSequence = journal.getLastSequence();
+            store.buy(product, customer);
+            accountManager.withdraw(customer, 2000);
+        }
+        CustomerLedger ledger = new CustomerLedger();
+        Map<Long, Product> products = new HashMap<>();
+
+        // Act
+        long restoredSequence;
+        try (TransactionJournal journal = new TransactionJournal(journalFile)) {
+            restoredSequence = SnapshotStore.restore(snapshots, journal, ledger, products);
+        }
+
+        // Assert
+        Customer restored = ledger.get(1);
+        assertEquals(3, snapshotSequence);
+        assertEquals(6, restoredSequence);
+        assertEquals("Ada", restored.getName());
+        assertEquals(customer.getBalance(), restored.getBalance());
+        assertEquals(-1000, restored.getBalance());
+        assertTrue(restored.isCreditAllowed());
+        assertTrue(restored.isVip());
+        assertEquals(3, products.get(9L).getQuantity());
+        assertEquals(50, products.get(9L).getPrice());
+    }
+
+    @Test
+    void givenNoSnapshot_WhenRestore_ThenReplayWholeJournal() throws IOException {
+        // Arrange
+        Path journalFile = dir.resolve("journal.bin");
+        try (TransactionJournal journal = new TransactionJournal(journalFile)) {
+            journal.append(JournalRecordType.DEPOSIT, 4, 0, 250);
+        }
+        CustomerLedger ledger = new CustomerLedger();
+        Customer customer = new Customer();
+        customer.setId(4);
+        ledger.register(customer);
+
+        // Act
+        try (TransactionJournal journal = new TransactionJournal(journalFile)) {
+            SnapshotStore.restore(dir.resolve("snapshots"), journal, ledger, new HashMap<>());
+        }
+
+        // Assert
+        assertEquals(250, customer.getBalance());
+    }
+
+    @Test
+    void givenConcurrentSnapshotCalls_WhenSnapshot_ThenEveryCallWritesAValidFile() throws Exception {
+        // Arrange
+        Path snapshots = dir.resolve("snapshots");
+        Customer customer = new Customer();
+        customer.setId(7);
+        customer.setBalance(300);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Path>> written = new ArrayList<>();
+        try (TransactionJournal journal = new TransactionJournal(dir.resolve("journal.bin"))) {
+            CustomerLedger ledger = new CustomerLedger();
+            ledger.register(customer);
+            SnapshotStore snapshotStore = new SnapshotStore(snapshots, journal, ledger, Collections::emptyList);
+
+            // Act
+            for (int i = 0; i < 20; i++) {
+                written.add(executor.submit(snapshotStore::snapshot));
+            }
+            for (Future<Path> path : written) {
+                path.get(10, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            // Assert
+            CustomerLedger restored = new CustomerLedger();
+            SnapshotStore.restore(snapshots, journal, restored, new HashMap<>());
+            assertEquals(300, restored.get(7).getBalance());
+        }
+    }
+
+    @Test
+    void givenRepeatedSnapshots_WhenRestore_ThenOldJournalSegmentsAreGoneAndStateMatches() throws IOException {
+        // Arrange
+        Path journalFile = dir.resolve("journal.bin");
+        Path snapshots = dir.resolve("snapshots");
+        Customer customer = new Customer();
+        customer.setId(3);
+        try (TransactionJournal journal = new TransactionJournal(journalFile, 4, 2, 5)) {
+            AccountManagerImpl accounts = new AccountManagerImpl();
+            accounts.getLedger().register(customer);
+            AccountManager accountManager = new JournalingAccountManager(accounts, journal);
+            SnapshotStore snapshotStore = new SnapshotStore(snapshots, journal, accounts.getLedger(),
+                    Collections::emptyList);
+
+            for (int i = 1; i <= 30; i++) {
+                accountManager.deposit(customer, 10);
+                if (i % 10 == 0) {
+                    snapshotStore.snapshot();
+                }
+            }
+            accountManager.deposit(customer, 5);
+        }
+        CustomerLedger ledger = new CustomerLedger();
+
+        // Act
+        long restoredSequence;
+        try (TransactionJournal journal = new TransactionJournal(journalFile, 4, 2, 5)) {
+            restoredSequence = SnapshotStore.restore(snapshots, journal, ledger, new HashMap<>());
+        }
+
+        // Assert
+        assertFalse(Files.exists(TransactionJournal.segment(journalFile, 1)));
+        assertFalse(Files.exists(TransactionJournal.segment(journalFile, 17)));
+        assertTrue(Files.exists(TransactionJournal.segment(journalFile, 21)));
+        assertEquals(31, restoredSequence);
+        assertEquals(305, ledger.get(3).getBalance());
+    }
+}
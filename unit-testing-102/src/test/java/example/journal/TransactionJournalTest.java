@@ -0,0 +1,183 @@
+package example.journal;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.CustomerLedger;
+import example.store.Product;
+import example.store.Store;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void givenAppendedRecords_WhenReopened_ThenReplayThemInOrder() throws IOException {
+        // Arrange
+        Path file = dir.resolve("journal.bin");
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append(JournalRecordType.DEPOSIT, i, 0, i * 10);
+            }
+        }
+        List<Long> amounts = new ArrayList<>();
+
+        // Act
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+            journal.replay(3, (sequence, type, customerId, productId, amount) -> amounts.add(amount));
+
+            // Assert
+            assertEquals(10, journal.getLastSequence());
+            assertEquals(11, journal.append(JournalRecordType.WITHDRAW, 1, 0, 5));
+        }
+        assertEquals(7, amounts.size());
+        assertEquals(40L, amounts.get(0));
+        assertEquals(100L, amounts.get(6));
+    }
+
+    @Test
+    void givenJournaledAccountsAndStore_WhenReplayedIntoFreshState_ThenRestoreBalancesAndQuantities() throws IOException {
+        // Arrange
+        Path file = dir.resolve("journal.bin");
+        Customer customer = customer(1, 1000);
+        Product product = product(5, 200, 10);
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            AccountManagerImpl accounts = new AccountManagerImpl();
+            accounts.getLedger().register(customer);
+            AccountManager accountManager = new JournalingAccountManager(accounts, journal);
+            Store store = new JournalingStore(new StoreImpl(accountManager), journal);
+
+            accountManager.deposit(1, 300);
+            store.buy(product, customer);
+            store.tryBuy(product, customer);
+            accountManager.withdraw(customer, 5000);
+            Customer payee = customer(2, 0);
+            accounts.getLedger().register(payee);
+            accountManager.transfer(1, 2, 150);
+        }
+        CustomerLedger restoredLedger = new CustomerLedger();
+        Customer restoredCustomer = customer(1, 1000);
+        Customer restoredPayee = customer(2, 0);
+        restoredLedger.register(restoredCustomer);
+        restoredLedger.register(restoredPayee);
+        Product restoredProduct = product(5, 200, 10);
+
+        // Act
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            new JournalReplayer(restoredLedger, id -> id == 5 ? restoredProduct : null).replay(journal, 0);
+        }
+
+        // Assert
+        assertEquals(customer.getBalance(), restoredCustomer.getBalance());
+        assertEquals(750, restoredCustomer.getBalance());
+        assertEquals(150, restoredPayee.getBalance());
+        assertEquals(8, restoredProduct.getQuantity());
+    }
+
+    @Test
+    void givenRecordWithCorruptedPayload_WhenReopened_ThenTreatItAsEndOfJournal() throws IOException {
+        // Arrange
+        Path file = dir.resolve("journal.bin");
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+            for (int i = 1; i <= 5; i++) {
+                journal.append(JournalRecordType.DEPOSIT, i, 0, i * 10);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(TransactionJournal.segment(file, 1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 2L * TransactionJournal.RECORD_SIZE + 32);
+        }
+
+        // Act
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+
+            // Assert
+            assertEquals(2, journal.getLastSequence());
+            assertEquals(3, journal.append(JournalRecordType.WITHDRAW, 1, 0, 5));
+        }
+    }
+
+    @Test
+    void givenSegmentsCoveredBySnapshot_WhenDiscardAndReopen_ThenKeepSequenceAndReplayRetainedTail() throws IOException {
+        // Arrange
+        Path file = dir.resolve("journal.bin");
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append(JournalRecordType.DEPOSIT, i, 0, i * 10);
+            }
+
+            // Act
+            journal.discardThrough(9);
+        }
+        List<Long> amounts = new ArrayList<>();
+
+        // Assert
+        assertFalse(Files.exists(TransactionJournal.segment(file, 1)));
+        assertFalse(Files.exists(TransactionJournal.segment(file, 5)));
+        assertTrue(Files.exists(TransactionJournal.segment(file, 9)));
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+            assertEquals(10, journal.getLastSequence());
+            journal.replay(8, (sequence, type, customerId, productId, amount) -> amounts.add(amount));
+            assertThrows(IllegalStateException.class, () -> journal.replay(3, (sequence, type, customerId, productId, amount) -> {
+            }));
+            assertEquals(11, journal.append(JournalRecordType.WITHDRAW, 1, 0, 5));
+        }
+        assertEquals(2, amounts.size());
+        assertEquals(90L, amounts.get(0));
+    }
+
+    @Test
+    void givenEverySegmentCovered_WhenDiscardAndReopen_ThenKeepLastSegmentSoSequenceContinues() throws IOException {
+        // Arrange
+        Path file = dir.resolve("journal.bin");
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+            for (int i = 1; i <= 8; i++) {
+                journal.append(JournalRecordType.DEPOSIT, i, 0, i * 10);
+            }
+
+            // Act
+            journal.discardThrough(100);
+        }
+
+        // Assert
+        assertFalse(Files.exists(TransactionJournal.segment(file, 1)));
+        try (TransactionJournal journal = new TransactionJournal(file, 4, 2, 5)) {
+            assertEquals(8, journal.getLastSequence());
+            assertEquals(9, journal.append(JournalRecordType.WITHDRAW, 1, 0, 5));
+        }
+    }
+
+    @Test
+    void givenUnknownTypeCode_WhenDecode_ThenReturnNull() {
+        // Act & Assert
+        assertNull(JournalRecordType.of(JournalRecordType.values().length));
+        assertNull(JournalRecordType.of(-1));
+    }
+
+    private static Customer customer(long id, int balance) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setBalance(balance);
+        return customer;
+    }
+
+    private static Product product(long id, int price, int quantity) {
+        Product product = new Product("Fridges", price, quantity);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,102 @@
+package example.metrics;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.store.Product;
+import example.store.Store;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void givenMeteredAccountManager_WhenWithdraw_ThenCountEachOutcome() {
+        // Arrange
+        AccountManager accountManager = new MeteredAccountManager(new AccountManagerImpl(), registry);
+        Customer customer = new Customer();
+        customer.setBalance(100);
+        customer.setCreditAllowed(true);
+
+        // Act
+        accountManager.withdraw(customer, 50);
+        accountManager.withdraw(customer, 2000);
+        accountManager.withdraw(customer, 2000);
+        customer.setCreditAllowed(false);
+        accountManager.withdraw(customer, 500);
+        accountManager.deposit(customer, 10);
+
+        // Assert
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertThat(snapshot.getCounter("account.withdraw.success")).isEqualTo(1);
+        assertThat(snapshot.getCounter("account.withdraw.maximum_credit_exceeded")).isEqualTo(2);
+        assertThat(snapshot.getCounter("account.withdraw.insufficient_account_balance")).isEqualTo(1);
+        assertThat(snapshot.getCounter("account.deposit")).isEqualTo(1);
+        assertThat(snapshot.getCounters()).containsKey("account.contended.updates");
+        assertThat(snapshot.getHistogram("account.withdraw.latency").getCount()).isEqualTo(4);
+    }
+
+    @Test
+    void givenMeteredStore_WhenBuy_ThenCountOutOfStockAndKeepThrowingContract() {
+        // Arrange
+        Store store = new MeteredStore(new StoreImpl(new AccountManagerImpl()), registry);
+        Customer customer = new Customer();
+        customer.setBalance(1000);
+        Product product = new Product("TVs", 100, 1);
+
+        // Act
+        store.buy(product, customer);
+
+        // Assert
+        assertThatThrownBy(() -> store.buy(product, customer))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Product out of stock");
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertThat(snapshot.getCounter("store.purchase.success")).isEqualTo(1);
+        assertThat(snapshot.getCounter("store.purchase.out_of_stock")).isEqualTo(1);
+        assertThat(snapshot.getHistogram("store.buy.latency").getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void givenRecordedLatencies_WhenSnapshot_ThenReportPercentilesWithinBucketPrecision() {
+        // Arrange
+        LatencyHistogram histogram = registry.histogram("test.latency");
+
+        // Act
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        // Assert
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(10_000);
+        assertThat(snapshot.getMax()).isEqualTo(10_000_000);
+        assertThat(snapshot.getValueAtPercentile(50)).isBetween(5_000_000L, 5_000_000L * 107 / 100);
+        assertThat(snapshot.getValueAtPercentile(99)).isBetween(9_900_000L, 9_900_000L * 107 / 100);
+        assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(10_000_000);
+        assertThat(snapshot.getMean()).isEqualTo(5_000_500.0);
+    }
+
+    @Test
+    void givenRegisteredExporter_WhenExport_ThenReceiveSnapshot() {
+        // Arrange
+        List<MetricsSnapshot> exported = new ArrayList<>();
+        registry.addExporter(exported::add);
+        registry.counter("test.counter").add(3);
+
+        // Act
+        registry.export();
+
+        // Assert
+        assertThat(exported).hasSize(1);
+        assertThat(exported.get(0).getCounter("test.counter")).isEqualTo(3);
+    }
+}
@@ -0,0 +1,43 @@
+package example.money;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void givenMajorAndMinorUnits_WhenOf_ThenCombineAtScale() {
+        // Act & Assert
+        assertEquals(1234, Money.of(12, 34));
+        assertEquals(-1234, Money.of(-12, 34));
+        assertEquals(500, Money.ofMajor(5));
+    }
+
+    @Test
+    void givenAmountBetweenMinusOneAndZero_WhenOf_ThenTakeSignFromMinorUnits() {
+        // Act & Assert
+        assertEquals(-34, Money.of(0, -34));
+        assertEquals("-0.34", Money.format(Money.of(0, -34)));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(-12, -34));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(0, -100));
+    }
+
+    @Test
+    void givenAmount_WhenFormatAndParse_ThenRoundTrip() {
+        // Act & Assert
+        assertEquals("12.05", Money.format(1205));
+        assertEquals("-0.50", Money.format(-50));
+        assertEquals(1205, Money.parse("12.05"));
+        assertEquals(-50, Money.parse("-0.5"));
+    }
+
+    @Test
+    void givenOverflowingArithmetic_WhenAddOrMultiply_ThenThrowInsteadOfWrapping() {
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.parse("0.001"));
+    }
+}
@@ -0,0 +1,168 @@
+package example.pipeline;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.store.Product;
+import example.store.PurchaseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PurchasePipelineTest {
+
+    @Test
+    void givenPurchasesWithinBalance_WhenSubmitted_ThenSettleAsOneWithdrawalPerBatch() {
+        // Arrange
+        AccountManager accountManager = spy(new AccountManagerImpl());
+        Customer customer = new Customer();
+        customer.setBalance(1000);
+        Product product = new Product("Phones", 50, 10);
+        List<CompletableFuture<PurchaseResult>> futures = new ArrayList<>();
+
+        // Act
+        try (PurchasePipeline pipeline = new PurchasePipeline(accountManager, 64, 2, 64)) {
+            for (int i = 0; i < 10; i++) {
+                futures.add(pipeline.submit(product, customer));
+            }
+        }
+
+        // Assert
+        for (CompletableFuture<PurchaseResult> future : futures) {
+            assertEquals(PurchaseResult.SUCCESS, future.join());
+        }
+        assertEquals(0, product.getQuantity());
+        assertEquals(500, customer.getBalance());
+        verify(accountManager, atMost(10)).withdraw(eq(customer), anyLong());
+    }
+
+    @Test
+    void givenBatchExceedingBalance_WhenSubmitted_ThenFallBackToSequentialOutcomes() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setBalance(120);
+        Product product = new Product("Phones", 50, 10);
+        List<CompletableFuture<PurchaseResult>> futures = new ArrayList<>();
+
+        // Act
+        try (PurchasePipeline pipeline = new PurchasePipeline(new AccountManagerImpl(), 8, 1, 4)) {
+            for (int i = 0; i < 4; i++) {
+                futures.add(pipeline.submit(product, customer));
+            }
+        }
+
+        // Assert
+        long succeeded = futures.stream().filter(future -> future.join().isSuccess()).count();
+        long declined = futures.stream()
+                .filter(future -> future.join() == PurchaseResult.INSUFFICIENT_ACCOUNT_BALANCE).count();
+        assertEquals(2, succeeded);
+        assertEquals(2, declined);
+        assertEquals(20, customer.getBalance());
+        assertEquals(8, product.getQuantity());
+    }
+
+    @Test
+    void givenOutOfStockProduct_WhenSubmitted_ThenCompleteWithoutPayment() {
+        // Arrange
+        AccountManager accountManager = mock(AccountManager.class);
+        Product product = new Product("TVs", 100, 0);
+        CompletableFuture<PurchaseResult> future;
+
+        // Act
+        try (PurchasePipeline pipeline = new PurchasePipeline(accountManager, 4, 1, 4)) {
+            future = pipeline.submit(product, new Customer());
+        }
+
+        // Assert
+        assertEquals(PurchaseResult.OUT_OF_STOCK, future.join());
+        verify(accountManager, never()).withdraw(any(Customer.class), anyLong());
+    }
+
+    @Test
+    void givenPaymentThrows_WhenSubmitted_ThenFailThatOrderReleaseStockAndKeepRunning() {
+        // Arrange
+        AccountManager accountManager = spy(new AccountManagerImpl());
+        Customer failing = new Customer();
+        Customer paying = new Customer();
+        paying.setBalance(100);
+        doThrow(new IllegalStateException("Journal unavailable")).when(accountManager).withdraw(eq(failing), anyLong());
+        Product product = new Product("Phones", 50, 10);
+        CompletableFuture<PurchaseResult> failed;
+        CompletableFuture<PurchaseResult> later;
+
+        // Act
+        try (PurchasePipeline pipeline = new PurchasePipeline(accountManager, 8, 1, 4)) {
+            failed = pipeline.submit(product, failing);
+            later = pipeline.submit(product, paying);
+        }
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, failed::join);
+        assertEquals("Journal unavailable", exception.getCause().getMessage());
+        assertEquals(PurchaseResult.SUCCESS, later.join());
+        assertEquals(9, product.getQuantity());
+        assertEquals(50, paying.getBalance());
+    }
+
+    @Test
+    void givenSubmittersRacingClose_WhenClosed_ThenEveryAcceptedOrderCompletes() throws Exception {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setBalance(1_000_000);
+        Product product = new Product("Phones", 1, 1_000_000);
+        PurchasePipeline pipeline = new PurchasePipeline(new AccountManagerImpl(), 2, 1, 2);
+        Queue<CompletableFuture<PurchaseResult>> accepted = new ConcurrentLinkedQueue<>();
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            submitters.execute(() -> {
+                try {
+                    while (true) {
+                        accepted.add(pipeline.submit(product, customer));
+                    }
+                } catch (IllegalStateException e) {
+                    // closed
+                }
+            });
+        }
+        Thread.sleep(20);
+
+        // Act
+        pipeline.close();
+        submitters.shutdown();
+
+        // Assert
+        assertTrue(submitters.awaitTermination(10, TimeUnit.SECONDS));
+        for (CompletableFuture<PurchaseResult> future : accepted) {
+            assertEquals(PurchaseResult.SUCCESS, future.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1_000_000 - accepted.size(), customer.getBalance());
+        assertThrows(IllegalStateException.class, () -> pipeline.submit(product, customer));
+    }
+
+    @Test
+    void givenFullRing_WhenOffer_ThenRejectUntilPolled() {
+        // Arrange
+        RingBuffer<Integer> ring = new RingBuffer<>(2);
+
+        // Act & Assert
+        assertTrue(ring.offer(1));
+        assertTrue(ring.offer(2));
+        assertFalse(ring.offer(3));
+        assertEquals(1, ring.poll());
+        assertTrue(ring.offer(3));
+        assertEquals(2, ring.poll());
+        assertEquals(3, ring.poll());
+        assertNull(ring.poll());
+    }
+}
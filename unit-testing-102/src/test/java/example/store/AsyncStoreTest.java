@@ -0,0 +1,66 @@
+package example.store;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.WithdrawResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AsyncStoreTest {
+
+    @Test
+    void givenManyPurchases_WhenBuyAsync_ThenCompleteEachWithItsResult() {
+        // Arrange
+        Customer customer = new Customer();
+        customer.setBalance(1000);
+        Product product = new Product("Phones", 50, 5);
+        List<CompletableFuture<PurchaseResult>> futures = new ArrayList<>();
+
+        // Act
+        try (AsyncStore store = new AsyncStore(new StoreImpl(new AccountManagerImpl()))) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(store.buy(product, customer));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        // Assert
+        long succeeded = futures.stream().filter(future -> future.join().isSuccess()).count();
+        long outOfStock = futures.stream().filter(future -> future.join() == PurchaseResult.OUT_OF_STOCK).count();
+        assertEquals(5, succeeded);
+        assertEquals(3, outOfStock);
+        assertEquals(0, product.getQuantity());
+        assertEquals(750, customer.getBalance());
+    }
+
+    @Test
+    void givenSlowAccountManager_WhenBuyAsync_ThenReturnBeforePaymentCompletes() {
+        // Arrange
+        CountDownLatch paymentReleased = new CountDownLatch(1);
+        AccountManager accountManager = mock(AccountManager.class);
+        Customer customer = new Customer();
+        Product product = new Product("Fridges", 200, 1);
+        when(accountManager.withdraw(customer, 200)).thenAnswer(invocation -> {
+            paymentReleased.await();
+            return WithdrawResult.SUCCESS;
+        });
+
+        try (AsyncStore store = new AsyncStore(new StoreImpl(accountManager))) {
+            // Act
+            CompletableFuture<PurchaseResult> future = store.buy(product, customer);
+
+            // Assert
+            assertFalse(future.isDone());
+            paymentReleased.countDown();
+            assertEquals(PurchaseResult.SUCCESS, future.join());
+        }
+    }
+}
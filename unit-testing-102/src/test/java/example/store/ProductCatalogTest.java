@@ -0,0 +1,102 @@
+package example.store;
+
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCatalogTest {
+
+    private ProductCatalog catalog;
+    private Store store;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ProductCatalog(4);
+        catalog.add("Fridges", 200, 10);
+        catalog.add("TVs", 100, 0);
+        catalog.add("Phones", 50, 5);
+
+        store = new StoreImpl(new AccountManagerImpl());
+        customer = new Customer();
+        customer.setBalance(1000);
+    }
+
+    @Test
+    void givenCatalogView_WhenBuy_ThenDecrementQuantityColumn() {
+        // Arrange
+        StockItem fridges = catalog.product(0);
+
+        // Act
+        store.buy(fridges, customer);
+
+        // Assert
+        assertEquals(9, catalog.getQuantity(0));
+        assertEquals(9, fridges.getQuantity());
+        assertEquals(800, customer.getBalance());
+        assertEquals("Fridges", fridges.getName());
+        assertEquals(0, fridges.getId());
+    }
+
+    @Test
+    void givenOutOfStockSku_WhenBuy_ThenThrowException() {
+        // Arrange
+        StockItem tvs = catalog.product(1);
+
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> store.buy(tvs, customer));
+        assertEquals("Product out of stock", exception.getMessage());
+        assertEquals(0, catalog.getQuantity(1));
+    }
+
+    @Test
+    void givenSameSkuViewsInCart_WhenBuyAll_ThenMergeIntoOneLineItem() {
+        // Arrange
+        Cart cart = new Cart().add(catalog.product(2), 2).add(catalog.product(2), 3);
+
+        // Act
+        store.buyAll(cart, customer);
+
+        // Assert
+        assertEquals(1, cart.getItems().size());
+        assertEquals(0, catalog.getQuantity(2));
+        assertEquals(750, customer.getBalance());
+    }
+
+    @Test
+    void givenStockedCatalog_WhenReport_ThenScanColumns() {
+        // Act & Assert
+        assertEquals(15, catalog.totalQuantity());
+        assertEquals(2250, catalog.inventoryValue());
+        assertEquals(1, catalog.countOutOfStock());
+        assertEquals(3, catalog.products().size());
+    }
+
+    @Test
+    void givenFullCatalog_WhenAdd_ThenThrowException() {
+        // Arrange
+        catalog.add("Thermal mugs", 0, 20);
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> catalog.add("Kettles", 30, 1));
+        assertEquals("Catalog is full", exception.getMessage());
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.product(4));
+    }
+
+    @Test
+    void givenNonPositiveUnits_WhenReserveOrRelease_ThenThrowAndKeepQuantity() {
+        // Arrange
+        StockItem fridges = catalog.product(0);
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> fridges.reserve(-3));
+        assertEquals("Units must be positive", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> fridges.reserve(0));
+        assertThrows(IllegalArgumentException.class, () -> fridges.release(-3));
+        assertThrows(IllegalArgumentException.class, () -> fridges.release(0));
+        assertEquals(10, catalog.getQuantity(0));
+    }
+}
@@ -115,4 +115,46 @@ public class StoreAssertJTest {
         assertThat(product3.getQuantity()).isEqualTo(4);
         assertThat(customer.getBalance()).isEqualTo(750);
     }
+
+    @Test
+    void givenProductOutOfStock_WhenTryBuy_ThenReturnOutOfStockWithoutThrowing() {
+        // Arrange
+        Product product = products.get(1);
+
+        // Act
+        PurchaseResult result = store.tryBuy(product, customer);
+
+        // Assert
+        assertThat(result).isSameAs(PurchaseResult.OUT_OF_STOCK);
+        assertThat(customer.getBalance()).isEqualTo(1000);
+    }
+
+    @Test
+    void givenInsufficientFunds_WhenTryBuy_ThenReturnPaymentFailureAndKeepQuantity() {
+        // Arrange
+        Product product = products.get(0);
+        customer.setBalance(100);
+
+        // Act
+        PurchaseResult result = store.tryBuy(product, customer);
+
+        // Assert
+        assertThat(result).isSameAs(PurchaseResult.INSUFFICIENT_ACCOUNT_BALANCE);
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(product.getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void givenSuccessfulPurchase_WhenTryBuy_ThenReturnSuccessAndReduceQuantity() {
+        // Arrange
+        Product product = products.get(2);
+
+        // Act
+        PurchaseResult result = store.tryBuy(product, customer);
+
+        // Assert
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(product.getQuantity()).isEqualTo(4);
+        assertThat(customer.getBalance()).isEqualTo(950);
+    }
 }
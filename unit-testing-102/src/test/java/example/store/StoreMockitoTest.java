@@ -2,6 +2,7 @@ package example.store;
 
 import example.account.AccountManager;
 import example.account.Customer;
+import example.account.WithdrawResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -9,6 +10,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -56,11 +58,11 @@ public class StoreMockitoTest {
         // Arrange
         Product product = products.get(0);
         customer.setBalance(100);
-        when(accountManager.withdraw(customer, product.getPrice())).thenReturn("insufficient funds");
+        when(accountManager.withdraw(customer, product.getPrice())).thenReturn(WithdrawResult.INSUFFICIENT_ACCOUNT_BALANCE);
 
         // Act
         Exception exception = assertThrows(RuntimeException.class, () -> store.buy(product, customer));
-        assertEquals("Payment failure: insufficient funds", exception.getMessage());
+        assertEquals("Payment failure: insufficient account balance", exception.getMessage());
         // Assert
         verify(accountManager).withdraw(customer, product.getPrice());
         assertEquals(10, product.getQuantity());
@@ -70,7 +72,7 @@ public class StoreMockitoTest {
     void givenSuccessfulPurchase_WhenBuy_ThenReduceProductQuantity() {
         // Arrange
         Product product = products.get(0);
-        when(accountManager.withdraw(customer, product.getPrice())).thenReturn("success");
+        when(accountManager.withdraw(customer, product.getPrice())).thenReturn(WithdrawResult.SUCCESS);
 
         // Act
         store.buy(product, customer);
@@ -84,11 +86,11 @@ public class StoreMockitoTest {
     void givenAccountManagerFails_WhenBuy_ThenThrowException() {
         // Arrange
         Product product = products.get(0);
-        when(accountManager.withdraw(customer, product.getPrice())).thenReturn("transaction error");
+        when(accountManager.withdraw(customer, product.getPrice())).thenReturn(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
 
         // Act
         Exception exception = assertThrows(RuntimeException.class, () -> store.buy(product, customer));
-        assertEquals("Payment failure: transaction error", exception.getMessage());
+        assertEquals("Payment failure: maximum credit exceeded", exception.getMessage());
         // Assert
         verify(accountManager).withdraw(customer, product.getPrice());
         assertEquals(10, product.getQuantity());
@@ -110,7 +112,7 @@ public class StoreMockitoTest {
     void givenZeroPriceProduct_WhenBuy_ThenAllowPurchaseAndReduceQuantity() {
         // Arrange
         Product product = products.get(3);
-        when(accountManager.withdraw(customer, product.getPrice())).thenReturn("success");
+        when(accountManager.withdraw(customer, product.getPrice())).thenReturn(WithdrawResult.SUCCESS);
 
         // Act
         store.buy(product, customer);
@@ -125,8 +127,8 @@ public class StoreMockitoTest {
         // Arrange
         Product product1 = products.get(0);
         Product product3 = products.get(2);
-        when(accountManager.withdraw(customer, product1.getPrice())).thenReturn("success");
-        when(accountManager.withdraw(customer, product3.getPrice())).thenReturn("success");
+        when(accountManager.withdraw(customer, product1.getPrice())).thenReturn(WithdrawResult.SUCCESS);
+        when(accountManager.withdraw(customer, product3.getPrice())).thenReturn(WithdrawResult.SUCCESS);
 
         // Act
         store.buy(product1, customer);
@@ -138,5 +140,79 @@ public class StoreMockitoTest {
         assertEquals(9, product1.getQuantity());
         assertEquals(4, product3.getQuantity());
     }
-}
 
+    @Test
+    void givenCartWithSeveralProducts_WhenBuyAll_ThenWithdrawCartTotalOnce() {
+        // Arrange
+        Product product1 = products.get(0);
+        Product product3 = products.get(2);
+        Cart cart = new Cart().add(product1, 2).add(product3, 1).add(product3, 1);
+        when(accountManager.withdraw(customer, 500)).thenReturn(WithdrawResult.SUCCESS);
+
+        // Act
+        store.buyAll(cart, customer);
+
+        // Assert
+        verify(accountManager, times(1)).withdraw(customer, 500);
+        assertEquals(8, product1.getQuantity());
+        assertEquals(3, product3.getQuantity());
+    }
+
+    @Test
+    void givenQuantity_WhenBuy_ThenWithdrawPriceTimesQuantityOnce() {
+        // Arrange
+        Product product1 = products.get(0);
+        when(accountManager.withdraw(customer, 1000)).thenReturn(WithdrawResult.SUCCESS);
+
+        // Act
+        store.buy(product1, customer, 5);
+
+        // Assert
+        verify(accountManager, times(1)).withdraw(customer, 1000);
+        verifyNoMoreInteractions(accountManager);
+        assertEquals(5, product1.getQuantity());
+    }
+
+    @Test
+    void givenPaymentFails_WhenBuyQuantity_ThenReleaseWholeReservation() {
+        // Arrange
+        Product product1 = products.get(0);
+        when(accountManager.withdraw(customer, 800)).thenReturn(WithdrawResult.MAXIMUM_CREDIT_EXCEEDED);
+
+        // Act
+        PurchaseResult result = store.tryBuy(product1, customer, 4);
+
+        // Assert
+        assertEquals(PurchaseResult.MAXIMUM_CREDIT_EXCEEDED, result);
+        assertEquals(10, product1.getQuantity());
+    }
+
+    @Test
+    void givenWithdrawThrows_WhenTryBuy_ThenReleaseReservationAndRethrow() {
+        // Arrange
+        Product product1 = products.get(0);
+        IllegalStateException failure = new IllegalStateException("Ledger unavailable");
+        when(accountManager.withdraw(customer, 600)).thenThrow(failure);
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> store.tryBuy(product1, customer, 3));
+        assertSame(failure, exception);
+        assertEquals(10, product1.getQuantity());
+    }
+
+    @Test
+    void givenWithdrawThrows_WhenTryBuyAll_ThenReleaseEveryReservationAndRethrow() {
+        // Arrange
+        Product product1 = products.get(0);
+        Product product3 = products.get(2);
+        Cart cart = new Cart().add(product1, 2).add(product3, 3);
+        IllegalStateException failure = new IllegalStateException("Ledger unavailable");
+        when(accountManager.withdraw(customer, 550)).thenThrow(failure);
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalStateException.class, () -> store.tryBuyAll(cart, customer));
+        assertSame(failure, exception);
+        assertEquals(10, product1.getQuantity());
+        assertEquals(5, product3.getQuantity());
+    }
+}
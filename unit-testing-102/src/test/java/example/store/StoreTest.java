@@ -7,6 +7,10 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -111,4 +115,191 @@ public class StoreTest {
         assertEquals(4, product3.getQuantity());
         assertEquals(750, customer.getBalance());
     }
+
+    @Test
+    void givenCartWithSeveralProducts_WhenBuyAll_ThenChargeTotalAndReduceQuantities() {
+        // Arrange
+        Product product1 = products.get(0);
+        Product product3 = products.get(2);
+        Cart cart = new Cart().add(product1, 2).add(product3, 3);
+
+        // Act
+        store.buyAll(cart, customer);
+
+        // Assert
+        assertEquals(8, product1.getQuantity());
+        assertEquals(2, product3.getQuantity());
+        assertEquals(450, customer.getBalance());
+    }
+
+    @Test
+    void givenCartWithOutOfStockProduct_WhenBuyAll_ThenThrowExceptionAndChangeNothing() {
+        // Arrange
+        Product product1 = products.get(0);
+        Product product2 = products.get(1);
+        Cart cart = new Cart().add(product1, 1).add(product2, 1);
+
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> store.buyAll(cart, customer));
+        assertEquals("Product out of stock", exception.getMessage());
+        assertEquals(10, product1.getQuantity());
+        assertEquals(1000, customer.getBalance());
+    }
+
+    @Test
+    void givenCartTotalAboveBalance_WhenBuyAll_ThenThrowExceptionAndChangeNothing() {
+        // Arrange
+        Product product1 = products.get(0);
+        Product product3 = products.get(2);
+        Cart cart = new Cart().add(product1, 5).add(product3, 1);
+
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> store.buyAll(cart, customer));
+        assertEquals("Payment failure: insufficient account balance", exception.getMessage());
+        assertEquals(10, product1.getQuantity());
+        assertEquals(5, product3.getQuantity());
+        assertEquals(1000, customer.getBalance());
+    }
+
+    @Test
+    void givenConcurrentBuyersOfLastUnits_WhenBuy_ThenNeverOversell() throws InterruptedException {
+        // Arrange
+        Product product = new Product("Consoles", 1, 50);
+        customer.setBalance(1000);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 500; i++) {
+            executor.execute(() -> {
+                if (store.tryBuy(product, customer).isSuccess()) {
+                    sold.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(50, sold.get());
+        assertEquals(0, product.getQuantity());
+        assertEquals(950, customer.getBalance());
+    }
+
+    @Test
+    void givenQuantityWithinStock_WhenBuy_ThenReserveAllUnitsAndChargeTotal() {
+        // Arrange
+        Product product = products.get(2);
+
+        // Act
+        store.buy(product, customer, 5);
+
+        // Assert
+        assertEquals(0, product.getQuantity());
+        assertEquals(750, customer.getBalance());
+    }
+
+    @Test
+    void givenQuantityAboveStock_WhenBuy_ThenThrowWithoutCharging() {
+        // Arrange
+        Product product = products.get(2);
+
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> store.buy(product, customer, 6));
+        assertEquals("Product out of stock", exception.getMessage());
+        assertEquals(5, product.getQuantity());
+        assertEquals(1000, customer.getBalance());
+    }
+
+    @Test
+    void givenTotalPriceWouldOverflow_WhenBuyQuantity_ThenThrowBeforeReserving() {
+        // Arrange
+        Product product = new Product("Yachts", Long.MAX_VALUE / 2, 10);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> store.tryBuy(product, customer, 3));
+        assertEquals(10, product.getQuantity());
+    }
+
+    @Test
+    void givenNonPositiveQuantity_WhenBuy_ThenThrowException() {
+        // Arrange
+        Product product = products.get(0);
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> store.tryBuy(product, customer, 0));
+        assertEquals("Quantity must be positive", exception.getMessage());
+    }
+
+    @Test
+    void givenCartTotalWouldOverflow_WhenTryBuyAll_ThenThrowBeforeReserving() {
+        // Arrange
+        Product product1 = products.get(0);
+        Product yachts = new Product("Yachts", Long.MAX_VALUE / 2, 10);
+        Cart cart = new Cart().add(product1, 1).add(yachts, 3);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> store.tryBuyAll(cart, customer));
+        assertEquals(10, product1.getQuantity());
+        assertEquals(10, yachts.getQuantity());
+    }
+
+    @Test
+    void givenLineQuantityWouldOverflow_WhenAddToCart_ThenThrowAndKeepLine() {
+        // Arrange
+        Product product1 = products.get(0);
+        Cart cart = new Cart().add(product1, Integer.MAX_VALUE);
+
+        // Act & Assert
+        assertThrows(ArithmeticException.class, () -> cart.add(product1, 2));
+        assertEquals(Integer.MAX_VALUE, cart.getItems().get(0).getQuantity());
+        assertEquals(PurchaseResult.OUT_OF_STOCK, store.tryBuyAll(cart, customer));
+        assertEquals(10, product1.getQuantity());
+        assertEquals(1000, customer.getBalance());
+    }
+
+    @Test
+    void givenNonPositiveQuantity_WhenAddToCart_ThenThrowException() {
+        // Arrange
+        Cart cart = new Cart();
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> cart.add(products.get(0), 0));
+        assertEquals("Quantity must be positive", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> cart.add(products.get(0), -3));
+        assertTrue(cart.isEmpty());
+    }
+
+    @Test
+    void givenNonPositiveUnits_WhenReserveOrRelease_ThenThrowAndKeepQuantity() {
+        // Arrange
+        Product product = products.get(0);
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> product.reserve(-3));
+        assertEquals("Units must be positive", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> product.reserve(0));
+        assertThrows(IllegalArgumentException.class, () -> product.release(-3));
+        assertThrows(IllegalArgumentException.class, () -> product.release(0));
+        assertEquals(10, product.getQuantity());
+    }
+
+    @Test
+    void givenCartWithOutOfStockLine_WhenTryBuyAllWithCallback_ThenReportThatLineOnly() {
+        // Arrange
+        Product product1 = products.get(0);
+        Product product2 = products.get(1);
+        Product product3 = products.get(2);
+        Cart cart = new Cart().add(product1, 1).add(product2, 1).add(product3, 1);
+        List<LineItem> reported = new ArrayList<>();
+
+        // Act
+        PurchaseResult result = store.tryBuyAll(cart, customer, reported::add);
+
+        // Assert
+        assertEquals(PurchaseResult.OUT_OF_STOCK, result);
+        assertEquals(1, reported.size());
+        assertSame(product2, reported.get(0).getProduct());
+        assertEquals(10, product1.getQuantity());
+    }
 }
@@ -0,0 +1,190 @@
+package example.stress;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.OffHeapAccountManager;
+import example.events.EventBus;
+import example.events.EventPublishingAccountManager;
+import example.idempotency.IdempotentAccountManager;
+import example.metrics.MeteredAccountManager;
+import example.metrics.MetricsRegistry;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccountManagerStressTest {
+
+    private static final int CUSTOMERS = 24;
+    private static final long INITIAL_BALANCE = 1000;
+    private static final long SEED = 20240607L;
+
+    @TestFactory
+    Stream<DynamicTest> givenConcurrentDepositsWithdrawalsAndTransfers_WhenStress_ThenConserveMoneyAndRespectCredit() {
+        return Stream.of(
+                target("AccountManagerImpl", customers -> new AccountManagerImpl(), Customer::getBalance),
+                target("MeteredAccountManager",
+                        customers -> new MeteredAccountManager(new AccountManagerImpl(), new MetricsRegistry()),
+                        Customer::getBalance),
+                target("EventPublishingAccountManager",
+                        customers -> new EventPublishingAccountManager(new AccountManagerImpl(), new EventBus(1024)),
+                        Customer::getBalance),
+                target("IdempotentAccountManager",
+                        customers -> new IdempotentAccountManager(new AccountManagerImpl(), 1000, 1, TimeUnit.MINUTES),
+                        Customer::getBalance),
+                offHeapTarget());
+    }
+
+    @TestFactory
+    Stream<DynamicTest> givenTransferOnlyWorkload_WhenStress_ThenTotalNeverChangesMidRun() {
+        return Stream.of(
+                implTransferTarget("AccountManagerImpl", accountManager -> accountManager),
+                implTransferTarget("MeteredAccountManager",
+                        accountManager -> new MeteredAccountManager(accountManager, new MetricsRegistry())),
+                implTransferTarget("EventPublishingAccountManager",
+                        accountManager -> new EventPublishingAccountManager(accountManager, new EventBus(1024))),
+                implTransferTarget("IdempotentAccountManager",
+                        accountManager -> new IdempotentAccountManager(accountManager, 1000, 1, TimeUnit.MINUTES)),
+                offHeapTransferTarget());
+    }
+
+    private static DynamicTest implTransferTarget(String name, Function<AccountManager, AccountManager> decorate) {
+        AccountManagerImpl[] manager = new AccountManagerImpl[1];
+        return transferTarget(name, customers -> {
+            manager[0] = new AccountManagerImpl();
+            return decorate.apply(manager[0]);
+        }, customers -> manager[0].totalBalance(customers));
+    }
+
+    private static DynamicTest offHeapTransferTarget() {
+        OffHeapAccountManager[] manager = new OffHeapAccountManager[1];
+        return transferTarget("OffHeapAccountManager", customers -> {
+            manager[0] = new OffHeapAccountManager(CUSTOMERS + 1);
+            customers.forEach(manager[0]::open);
+            return manager[0];
+        }, customers -> manager[0].totalBalance(customers.stream().mapToLong(Customer::getId).toArray()));
+    }
+
+    private static DynamicTest transferTarget(String name, Function<List<Customer>, AccountManager> factory,
+                                              ToLongFunction<List<Customer>> totalOf) {
+        return DynamicTest.dynamicTest(name, () -> {
+            // Arrange
+            List<Customer> customers = new ArrayList<>(CUSTOMERS);
+            for (Customer customer : customers()) {
+                customers.add(new YieldingCustomer(customer));
+            }
+            AccountManager accountManager = factory.apply(customers);
+            Runnable totalConserved = () -> assertThat(totalOf.applyAsLong(customers))
+                    .as("total balance").isEqualTo(CUSTOMERS * INITIAL_BALANCE);
+            StressHarness harness = new StressHarness(8, 20_000, SEED);
+
+            // Act & Assert
+            harness.run((thread, random) -> {
+                Customer from = customers.get(random.nextInt(CUSTOMERS));
+                Customer to = customers.get(random.nextInt(CUSTOMERS));
+                if (from != to) {
+                    accountManager.transfer(from, to, 1 + random.nextInt(300));
+                }
+            }, totalConserved);
+        });
+    }
+
+    private static DynamicTest offHeapTarget() {
+        OffHeapAccountManager[] manager = new OffHeapAccountManager[1];
+        return target("OffHeapAccountManager", customers -> {
+            manager[0] = new OffHeapAccountManager(CUSTOMERS + 1);
+            customers.forEach(manager[0]::open);
+            return manager[0];
+        }, customer -> manager[0].getBalance(customer.getId()));
+    }
+
+    private static DynamicTest target(String name, Function<List<Customer>, AccountManager> factory,
+                                      ToLongFunction<Customer> balanceOf) {
+        return DynamicTest.dynamicTest(name, () -> {
+            // Arrange
+            List<Customer> customers = customers();
+            AccountManager accountManager = factory.apply(customers);
+            LongAdder deposited = new LongAdder();
+            LongAdder withdrawn = new LongAdder();
+            Runnable creditRespected = () -> {
+                for (Customer customer : customers) {
+                    long balance = balanceOf.applyAsLong(customer);
+                    if (!customer.isCreditAllowed()) {
+                        assertThat(balance).as("balance of customer %d", customer.getId()).isNotNegative();
+                    } else if (!customer.isVip()) {
+                        assertThat(balance).as("balance of customer %d", customer.getId()).isGreaterThanOrEqualTo(-1000);
+                    }
+                }
+            };
+            StressHarness harness = new StressHarness(8, 20_000, SEED);
+
+            // Act
+            harness.run((thread, random) -> {
+                Customer customer = customers.get(random.nextInt(CUSTOMERS));
+                int operation = random.nextInt(3);
+                if (operation == 0) {
+                    long amount = 1 + random.nextInt(100);
+                    accountManager.deposit(customer, amount);
+                    deposited.add(amount);
+                } else if (operation == 1) {
+                    long amount = 1 + random.nextInt(300);
+                    if (accountManager.withdraw(customer, amount).isSuccess()) {
+                        withdrawn.add(amount);
+                    }
+                } else {
+                    Customer recipient = customers.get(random.nextInt(CUSTOMERS));
+                    if (recipient != customer) {
+                        accountManager.transfer(customer, recipient, 1 + random.nextInt(300));
+                    }
+                }
+            }, creditRespected);
+
+            // Assert
+            long total = 0;
+            for (Customer customer : customers) {
+                total += balanceOf.applyAsLong(customer);
+            }
+            assertThat(total).isEqualTo(CUSTOMERS * INITIAL_BALANCE + deposited.sum() - withdrawn.sum());
+        });
+    }
+
+    /**
+     * Yields on every balance read, which a transfer does between debiting one customer and crediting
+     * the other, so the observer gets to run inside that window even on a single core.
+     */
+    private static final class YieldingCustomer extends Customer {
+        YieldingCustomer(Customer customer) {
+            setId(customer.getId());
+            setBalance(customer.getBalance());
+            setCreditTerms(customer.isCreditAllowed(), customer.isVip());
+        }
+
+        @Override
+        public long getBalance() {
+            Thread.yield();
+            return super.getBalance();
+        }
+    }
+
+    private static List<Customer> customers() {
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setId(i + 1);
+            customer.setBalance(INITIAL_BALANCE);
+            customer.setCreditAllowed(i % 3 != 0);
+            customer.setVip(i % 3 == 2);
+            customers.add(customer);
+        }
+        return customers;
+    }
+}
@@ -0,0 +1,123 @@
+package example.stress;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.events.EventBus;
+import example.events.EventPublishingStore;
+import example.idempotency.IdempotentStore;
+import example.metrics.MeteredStore;
+import example.metrics.MetricsRegistry;
+import example.store.Cart;
+import example.store.LineItem;
+import example.store.Product;
+import example.store.Store;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StoreStressTest {
+
+    private static final int PRODUCTS = 8;
+    private static final int INITIAL_QUANTITY = 500;
+    private static final int CUSTOMERS = 16;
+    private static final long INITIAL_BALANCE = 20_000;
+    private static final long SEED = 20240611L;
+
+    @TestFactory
+    Stream<DynamicTest> givenConcurrentPurchases_WhenStress_ThenNeverOversellOrLoseMoney() {
+        return Stream.of(
+                target("StoreImpl", StoreImpl::new),
+                target("MeteredStore", accountManager ->
+                        new MeteredStore(new StoreImpl(accountManager), new MetricsRegistry())),
+                target("EventPublishingStore", accountManager ->
+                        new EventPublishingStore(new StoreImpl(accountManager), new EventBus(1024))),
+                target("IdempotentStore", accountManager ->
+                        new IdempotentStore(new StoreImpl(accountManager), 1000, 1, TimeUnit.MINUTES)));
+    }
+
+    private static DynamicTest target(String name, Function<AccountManager, Store> factory) {
+        return DynamicTest.dynamicTest(name, () -> {
+            // Arrange
+            List<Product> products = products();
+            List<Customer> customers = customers();
+            Store store = factory.apply(new AccountManagerImpl());
+            AtomicLongArray sold = new AtomicLongArray(PRODUCTS);
+            LongAdder revenue = new LongAdder();
+            Runnable stockAndBalancesValid = () -> {
+                for (Product product : products) {
+                    assertThat(product.getQuantity()).as(product.getName()).isBetween(0, INITIAL_QUANTITY);
+                }
+                for (Customer customer : customers) {
+                    assertThat(customer.getBalance()).as("balance of customer %d", customer.getId()).isNotNegative();
+                }
+            };
+            StressHarness harness = new StressHarness(8, 5_000, SEED);
+
+            // Act
+            harness.run((thread, random) -> {
+                Customer customer = customers.get(random.nextInt(CUSTOMERS));
+                if (random.nextInt(10) < 7) {
+                    Product product = products.get(random.nextInt(PRODUCTS));
+                    int quantity = 1 + random.nextInt(3);
+                    if (store.tryBuy(product, customer, quantity).isSuccess()) {
+                        sold.addAndGet((int) product.getId(), quantity);
+                        revenue.add(product.getPrice() * quantity);
+                    }
+                } else {
+                    Cart cart = new Cart()
+                            .add(products.get(random.nextInt(PRODUCTS)), 1 + random.nextInt(3))
+                            .add(products.get(random.nextInt(PRODUCTS)), 1 + random.nextInt(3));
+                    if (store.tryBuyAll(cart, customer).isSuccess()) {
+                        for (LineItem item : cart.getItems()) {
+                            sold.addAndGet((int) item.getProduct().getId(), item.getQuantity());
+                        }
+                        revenue.add(cart.getTotal());
+                    }
+                }
+            }, stockAndBalancesValid);
+
+            // Assert
+            for (Product product : products) {
+                assertThat(product.getQuantity() + sold.get((int) product.getId()))
+                        .as(product.getName()).isEqualTo(INITIAL_QUANTITY);
+            }
+            long total = 0;
+            for (Customer customer : customers) {
+                total += customer.getBalance();
+            }
+            assertThat(total + revenue.sum()).isEqualTo(CUSTOMERS * INITIAL_BALANCE);
+        });
+    }
+
+    private static List<Product> products() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product("Product " + i, 10 + i * 15, INITIAL_QUANTITY);
+            product.setId(i);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static List<Customer> customers() {
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setId(i + 1);
+            customer.setBalance(INITIAL_BALANCE);
+            customers.add(customer);
+        }
+        return customers;
+    }
+}
@@ -0,0 +1,91 @@
+package example.stress;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a randomized workload on many threads at once and checks invariants while it runs.
+ * <p>
+ * Every thread gets its own {@link SplittableRandom} derived from the seed and yields at random
+ * points to shake up the interleavings; an observer thread keeps evaluating the invariant until all
+ * workers are done. Any failure is reported with the seed so the schedule of random choices can be
+ * replayed.
+ */
+final class StressHarness {
+
+    interface Step {
+        void run(int thread, SplittableRandom random);
+    }
+
+    private final int threads;
+    private final int stepsPerThread;
+    private final long seed;
+
+    StressHarness(int threads, int stepsPerThread, long seed) {
+        this.threads = threads;
+        this.stepsPerThread = stepsPerThread;
+        this.seed = seed;
+    }
+
+    void run(Step step, Runnable invariant) throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicBoolean stopped = new AtomicBoolean();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            SplittableRandom random = new SplittableRandom(seed + thread);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < stepsPerThread && !stopped.get(); i++) {
+                        if (random.nextInt(8) == 0) {
+                            Thread.yield();
+                        }
+                        step.run(thread, random);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                    stopped.set(true);
+                } finally {
+                    done.countDown();
+                }
+            }, "stress-" + thread);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        Thread observer = new Thread(() -> {
+            try {
+                while (!stopped.get()) {
+                    invariant.run();
+                    Thread.yield();
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+                stopped.set(true);
+            }
+        }, "stress-observer");
+        observer.start();
+
+        start.countDown();
+        boolean finished = done.await(60, TimeUnit.SECONDS);
+        stopped.set(true);
+        observer.join();
+        if (!finished) {
+            failures.add(new AssertionError("Workers did not finish within 60 seconds"));
+        } else if (failures.isEmpty()) {
+            try {
+                invariant.run();
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError("Stress run failed with seed " + seed, failures.peek());
+        }
+    }
+}
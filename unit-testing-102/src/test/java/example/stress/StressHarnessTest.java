@@ -0,0 +1,40 @@
+package example.stress;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StressHarnessTest {
+
+    @Test
+    void givenBrokenInvariant_WhenRun_ThenFailWithSeed() {
+        // Arrange
+        AtomicInteger counter = new AtomicInteger();
+        StressHarness harness = new StressHarness(4, 1000, 42);
+
+        // Act & Assert
+        assertThatThrownBy(() -> harness.run((thread, random) -> counter.incrementAndGet(),
+                () -> assertThat(counter.get()).isLessThan(100)))
+                .isInstanceOf(AssertionError.class)
+                .hasMessage("Stress run failed with seed 42");
+    }
+
+    @Test
+    void givenFailingStep_WhenRun_ThenStopAndReportCause() {
+        // Arrange
+        StressHarness harness = new StressHarness(4, 1000, 7);
+
+        // Act & Assert
+        assertThatThrownBy(() -> harness.run((thread, random) -> {
+            if (random.nextInt(100) == 0) {
+                throw new IllegalStateException("lost update");
+            }
+        }, () -> {
+        }))
+                .hasMessage("Stress run failed with seed 7")
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+}
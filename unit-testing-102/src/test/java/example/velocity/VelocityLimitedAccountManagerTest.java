@@ -0,0 +1,134 @@
+package example.velocity;
+
+import example.account.AccountManager;
+import example.account.AccountManagerImpl;
+import example.account.Customer;
+import example.account.WithdrawResult;
+import example.store.Product;
+import example.store.PurchaseResult;
+import example.store.StoreImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VelocityLimitedAccountManagerTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+    private VelocityLimiter limiter;
+    private AccountManager accountManager;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new VelocityLimiter(3, 1, TimeUnit.SECONDS, now::get);
+        accountManager = new VelocityLimitedAccountManager(new AccountManagerImpl(), limiter);
+        customer = customer(1, 1000);
+    }
+
+    @Test
+    void givenLimitReached_WhenWithdraw_ThenRejectWithoutTouchingBalance() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            accountManager.withdraw(customer, 10);
+        }
+
+        // Act
+        WithdrawResult result = accountManager.withdraw(customer, 10);
+
+        // Assert
+        assertThat(result).isSameAs(WithdrawResult.VELOCITY_LIMIT_EXCEEDED);
+        assertThat(result.getMessage()).isEqualTo("withdrawal rate limit exceeded");
+        assertThat(customer.getBalance()).isEqualTo(970);
+    }
+
+    @Test
+    void givenOneCustomerAtLimit_WhenOtherCustomerWithdraws_ThenAllowIt() {
+        // Arrange
+        Customer other = customer(2, 1000);
+        for (int i = 0; i < 3; i++) {
+            accountManager.withdraw(customer, 10);
+        }
+
+        // Act
+        WithdrawResult result = accountManager.withdraw(other, 10);
+
+        // Assert
+        assertThat(result).isSameAs(WithdrawResult.SUCCESS);
+    }
+
+    @Test
+    void givenLimitReached_WhenWindowSlides_ThenAllowAgainAsPreviousWindowFadesOut() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            accountManager.withdraw(customer, 10);
+        }
+
+        // Act
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
+        WithdrawResult first = accountManager.withdraw(customer, 10);
+        WithdrawResult second = accountManager.withdraw(customer, 10);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(800));
+        WithdrawResult later = accountManager.withdraw(customer, 10);
+
+        // Assert
+        assertThat(first).isSameAs(WithdrawResult.SUCCESS);
+        assertThat(second).isSameAs(WithdrawResult.VELOCITY_LIMIT_EXCEEDED);
+        assertThat(later).isSameAs(WithdrawResult.SUCCESS);
+    }
+
+    @Test
+    void givenLimitReached_WhenBuy_ThenReportVelocityFailureAndReleaseStock() {
+        // Arrange
+        StoreImpl store = new StoreImpl(accountManager);
+        Product product = new Product("Kettles", 20, 10);
+        for (int i = 0; i < 3; i++) {
+            store.tryBuy(product, customer);
+        }
+
+        // Act
+        PurchaseResult result = store.tryBuy(product, customer);
+
+        // Assert
+        assertThat(result).isSameAs(PurchaseResult.VELOCITY_LIMIT_EXCEEDED);
+        assertThat(product.getQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void givenManyCustomers_WhenTheyGoIdle_ThenDropTheirCounters() {
+        // Arrange
+        for (long id = 0; id < 10_000; id++) {
+            limiter.tryAcquire(id);
+        }
+        int tracked = limiter.size();
+
+        // Act
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        for (long id = 10_000; id < 20_000; id++) {
+            limiter.tryAcquire(id);
+        }
+
+        // Assert
+        assertThat(tracked).isEqualTo(10_000);
+        assertThat(limiter.size()).isLessThan(20_000);
+    }
+
+    @Test
+    void givenNonPositiveLimit_WhenCreate_ThenThrowException() {
+        // Act & Assert
+        assertThatThrownBy(() -> new VelocityLimiter(0, 1, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit and window must be positive");
+    }
+
+    private static Customer customer(long id, long balance) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setBalance(balance);
+        return customer;
+    }
+}